@@ -0,0 +1,177 @@
+package puzzles.bench.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import puzzles.common.solver.Configuration;
+import puzzles.hoppers.model.HoppersBitConfig;
+import puzzles.hoppers.model.HoppersConfig;
+import puzzles.jam.model.JamCarConfig;
+import puzzles.jam.model.JamConfig;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH microbenchmarks of configuration operations.
+ * Covers the same cases as the neighbors, hashCode, equals and parse
+ * benchmarks of PuzzleBenchmark, on the largest Jam and Hoppers boards.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigBenchmark {
+
+    /** Directory holding the jam and hoppers puzzle folders */
+    @Param("data")
+    public String dataDir;
+
+    /** Jam file the benchmarks run on */
+    private String jamFile;
+
+    /** Hoppers file the benchmarks run on */
+    private String hoppersFile;
+
+    /** Jam grid configuration */
+    private JamConfig jam;
+
+    /** Separately parsed copy of jam, so equals() cannot stop at identity */
+    private JamConfig jamCopy;
+
+    /** Jam car-vector configuration */
+    private JamCarConfig jamCars;
+
+    /** Hoppers grid configuration */
+    private HoppersConfig hoppers;
+
+    /** Separately parsed copy of hoppers, so equals() cannot stop at identity */
+    private HoppersConfig hoppersCopy;
+
+    /** Hoppers bitboard configuration */
+    private HoppersBitConfig hoppersBits;
+
+    /**
+     * Loads the configurations.
+     *
+     * @throws IOException if a puzzle file fails to load
+     */
+    @Setup
+    public void setup() throws IOException {
+        this.jamFile = Path.of(this.dataDir, "jam", "jam-10.txt").toString();
+        this.hoppersFile = Path.of(this.dataDir, "hoppers", "hoppers-8.txt").toString();
+
+        this.jam = new JamConfig(this.jamFile);
+        this.jamCopy = new JamConfig(this.jamFile);
+        this.jamCars = JamCarConfig.of(this.jam);
+        this.hoppers = new HoppersConfig(this.hoppersFile);
+        this.hoppersCopy = new HoppersConfig(this.hoppersFile);
+        this.hoppersBits = HoppersBitConfig.of(this.hoppers);
+    }
+
+    /**
+     * Generates the neighbors of the Jam grid configuration.
+     *
+     * @return neighbors, consumed by JMH
+     */
+    @Benchmark
+    public Collection<Configuration> neighborsJamConfig() {
+        return this.jam.getNeighbors();
+    }
+
+    /**
+     * Generates the neighbors of the Jam car-vector configuration.
+     *
+     * @return neighbors, consumed by JMH
+     */
+    @Benchmark
+    public Collection<Configuration> neighborsJamCarConfig() {
+        return this.jamCars.getNeighbors();
+    }
+
+    /**
+     * Generates the neighbors of the Hoppers grid configuration.
+     *
+     * @return neighbors, consumed by JMH
+     */
+    @Benchmark
+    public Collection<Configuration> neighborsHoppersConfig() {
+        return this.hoppers.getNeighbors();
+    }
+
+    /**
+     * Generates the neighbors of the Hoppers bitboard configuration.
+     *
+     * @return neighbors, consumed by JMH
+     */
+    @Benchmark
+    public Collection<Configuration> neighborsHoppersBitConfig() {
+        return this.hoppersBits.getNeighbors();
+    }
+
+    /**
+     * Hashes the Jam grid configuration.
+     *
+     * @return hashcode, consumed by JMH
+     */
+    @Benchmark
+    public int hashCodeJamConfig() {
+        return this.jam.hashCode();
+    }
+
+    /**
+     * Hashes the Hoppers grid configuration.
+     *
+     * @return hashcode, consumed by JMH
+     */
+    @Benchmark
+    public int hashCodeHoppersConfig() {
+        return this.hoppers.hashCode();
+    }
+
+    /**
+     * Compares the Jam grid configuration to an equal copy.
+     *
+     * @return comparison result, consumed by JMH
+     */
+    @Benchmark
+    public boolean equalsJamConfig() {
+        return this.jam.equals(this.jamCopy);
+    }
+
+    /**
+     * Compares the Hoppers grid configuration to an equal copy.
+     *
+     * @return comparison result, consumed by JMH
+     */
+    @Benchmark
+    public boolean equalsHoppersConfig() {
+        return this.hoppers.equals(this.hoppersCopy);
+    }
+
+    /**
+     * Parses the Jam file.
+     *
+     * @return parsed configuration, consumed by JMH
+     * @throws IOException if the file fails to load
+     */
+    @Benchmark
+    public JamConfig parseJamConfig() throws IOException {
+        return new JamConfig(this.jamFile);
+    }
+
+    /**
+     * Parses the Hoppers file.
+     *
+     * @return parsed configuration, consumed by JMH
+     * @throws IOException if the file fails to load
+     */
+    @Benchmark
+    public HoppersConfig parseHoppersConfig() throws IOException {
+        return new HoppersConfig(this.hoppersFile);
+    }
+}
@@ -0,0 +1,79 @@
+package puzzles.bench.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.Solver;
+import puzzles.crossing.CrossingConfiguration;
+import puzzles.hoppers.model.HoppersConfig;
+import puzzles.jam.model.JamConfig;
+import puzzles.strings.StringsConfiguration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of full BFS solves.
+ * Covers the same cases as the solve.* benchmarks of PuzzleBenchmark.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SolveBenchmark {
+
+    /** Directory holding the jam and hoppers puzzle folders */
+    @Param("data")
+    public String dataDir;
+
+    /** Puzzle solved, as kind/name */
+    @Param({"jam/jam-0", "jam/jam-1", "jam/jam-2", "jam/jam-3", "jam/jam-4", "jam/jam-5", "jam/jam-6",
+            "jam/jam-7", "jam/jam-8", "jam/jam-9", "jam/jam-10", "jam/jam-11",
+            "hoppers/hoppers-0", "hoppers/hoppers-1", "hoppers/hoppers-2", "hoppers/hoppers-3",
+            "hoppers/hoppers-4", "hoppers/hoppers-5", "hoppers/hoppers-6", "hoppers/hoppers-7",
+            "hoppers/hoppers-8", "hoppers/hoppers-9",
+            "strings/CAT-DOG", "strings/ABCD-ZZZZ", "strings/AAAA-MMMM",
+            "crossing/3-3", "crossing/10-10"})
+    public String puzzle;
+
+    /** Starting configuration */
+    private Configuration start;
+
+    /**
+     * Loads the starting configuration.
+     *
+     * @throws IOException if the puzzle file fails to load
+     */
+    @Setup
+    public void setup() throws IOException {
+
+        String kind = this.puzzle.substring(0, this.puzzle.indexOf('/'));
+        String name = this.puzzle.substring(kind.length() + 1);
+        String file = Path.of(this.dataDir, kind, name + ".txt").toString();
+        String[] parts = name.split("-");
+
+        switch (kind) {
+            case "jam" -> this.start = new JamConfig(file);
+            case "hoppers" -> this.start = new HoppersConfig(file);
+            case "strings" -> this.start = new StringsConfiguration(parts[0], parts[1]);
+            case "crossing" -> this.start = new CrossingConfiguration(Integer.parseInt(parts[0]),
+                    Integer.parseInt(parts[1]));
+            default -> throw new IllegalArgumentException("Unknown puzzle kind: " + kind);
+        }
+    }
+
+    /**
+     * Solves the puzzle.
+     *
+     * @return solution path, consumed by JMH
+     */
+    @Benchmark
+    public Collection<Configuration> solve() {
+        return new Solver().findPath(this.start, false);
+    }
+}
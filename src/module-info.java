@@ -1,5 +1,8 @@
 module BFSPuzzleSolver {
     requires transitive javafx.controls;
+    requires java.management;
+    requires jdk.jfr;
+    requires jdk.management;
     exports puzzles.common;
     exports puzzles.common.solver;
     exports puzzles.hoppers.gui;
@@ -0,0 +1,155 @@
+package puzzles.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measured time and allocation of one benchmark.
+ * Results are written as a JSON array with one benchmark per line, so
+ * baselines can be read back without a JSON library.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class BenchmarkResult {
+
+    /** Pulls the name and primary score out of one written result line */
+    private static final Pattern LINE = Pattern.compile(
+            "\"benchmark\"\\s*:\\s*\"([^\"]+)\".*?\"score\"\\s*:\\s*([-0-9.Ee+]+)");
+
+    /** Benchmark name */
+    private final String name;
+
+    /** Measured iterations */
+    private final int iterations;
+
+    /** Mean nanoseconds per operation */
+    private final double score;
+
+    /** Standard deviation of the per-iteration means */
+    private final double error;
+
+    /** Mean bytes allocated per operation (-1 if unsupported) */
+    private final double allocation;
+
+    /**
+     * BenchmarkResult constructor.
+     *
+     * @param name benchmark name
+     * @param iterations measured iterations
+     * @param score mean nanoseconds per operation
+     * @param error standard deviation of the per-iteration means
+     * @param allocation mean bytes allocated per operation (-1 if unsupported)
+     */
+    public BenchmarkResult(String name, int iterations, double score, double error, double allocation) {
+        this.name = name;
+        this.iterations = iterations;
+        this.score = score;
+        this.error = error;
+        this.allocation = allocation;
+    }
+
+    /**
+     * Gets benchmark name.
+     *
+     * @return benchmark name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets mean time per operation.
+     *
+     * @return nanoseconds per operation
+     */
+    public double getScore() {
+        return this.score;
+    }
+
+    /**
+     * Gets spread of the measured iterations.
+     *
+     * @return standard deviation in nanoseconds per operation
+     */
+    public double getError() {
+        return this.error;
+    }
+
+    /**
+     * Gets mean allocation per operation.
+     *
+     * @return bytes per operation (-1 if unsupported)
+     */
+    public double getAllocation() {
+        return this.allocation;
+    }
+
+    /**
+     * Formats this result as a one-line JSON object.
+     *
+     * @return JSON object
+     */
+    public String toJson() {
+
+        String json = String.format(Locale.ROOT, "{\"benchmark\": \"%s\", \"mode\": \"avgt\", \"iterations\": %d, "
+                        + "\"primaryMetric\": {\"score\": %.3f, \"scoreError\": %.3f, \"scoreUnit\": \"ns/op\"}",
+                this.name, this.iterations, this.score, this.error);
+
+        if (this.allocation >= 0) {
+            json += String.format(Locale.ROOT, ", \"secondaryMetrics\": {\"gc.alloc.rate.norm\": "
+                    + "{\"score\": %.3f, \"scoreUnit\": \"B/op\"}}", this.allocation);
+        }
+
+        return json + "}";
+    }
+
+    /**
+     * Writes results as a JSON array.
+     *
+     * @param results results to write
+     * @param file file to write
+     * @throws IOException if writing fails
+     */
+    public static void write(List<BenchmarkResult> results, Path file) throws IOException {
+
+        List<String> lines = new ArrayList<>();
+        lines.add("[");
+
+        for (int i = 0; i < results.size(); ++i) {
+            lines.add("  " + results.get(i).toJson() + (i + 1 < results.size() ? "," : ""));
+        }
+
+        lines.add("]");
+        Files.write(file, lines);
+    }
+
+    /**
+     * Reads the primary scores of results written by write().
+     *
+     * @param file file to read
+     * @return nanoseconds per operation by benchmark name
+     * @throws IOException if reading fails
+     */
+    public static Map<String, Double> readScores(Path file) throws IOException {
+
+        Map<String, Double> scores = new LinkedHashMap<>();
+
+        for (String line : Files.readAllLines(file)) {
+            Matcher matcher = LINE.matcher(line);
+
+            if (matcher.find()) {
+                scores.put(matcher.group(1), Double.parseDouble(matcher.group(2)));
+            }
+        }
+
+        return scores;
+    }
+}
@@ -0,0 +1,127 @@
+package puzzles.bench;
+
+import puzzles.common.solver.ConcurrentFingerprintSet;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Contention benchmark for ConcurrentFingerprintSet against ConcurrentHashMap.
+ * Every thread inserts its own slice of one shared fingerprint stream in which
+ * each fingerprint appears twice, so threads race to claim the same keys the
+ * way parallel search workers race to claim the same children.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class FingerprintSetBenchmark {
+
+    /** Thread counts measured */
+    private static final int[] THREAD_COUNTS = {1, 4, 16, 32};
+
+    /** Timed rounds per measurement, the best is kept */
+    private static final int ROUNDS = 3;
+
+    /**
+     * Inserts a fingerprint stream from several threads and times it.
+     *
+     * @param fingerprints fingerprint stream
+     * @param threads number of inserting threads
+     * @param insert insert operation, returns 1 if the fingerprint was new
+     * @return elapsed nanoseconds
+     */
+    private static long run(long[] fingerprints, int threads, LongBinaryOperator insert) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicInteger added = new AtomicInteger();
+
+        for (int t = 0; t < threads; ++t) {
+            final int first = t;
+
+            Thread worker = new Thread(() -> {
+                ready.countDown();
+                int mine = 0;
+
+                try {
+                    go.await();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                for (int i = first; i < fingerprints.length; i += threads) {  // interleaved slices
+                    mine += (int) insert.applyAsLong(fingerprints[i], fingerprints[i] >>> 1);
+                }
+
+                added.addAndGet(mine);
+                done.countDown();
+            });
+
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        if (added.get() != fingerprints.length / 2) {
+            throw new IllegalStateException("Expected " + fingerprints.length / 2 + " inserts, got " + added.get());
+        }
+
+        return elapsed;
+    }
+
+    /**
+     * Benchmark entry point.
+     *
+     * @param args optional distinct fingerprint count
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int distinct = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long[] fingerprints = new long[distinct * 2];
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (int i = 0; i < distinct; ++i) {
+            fingerprints[2 * i] = random.nextLong() | 1;
+            fingerprints[2 * i + 1] = fingerprints[2 * i];
+        }
+
+        for (int i = fingerprints.length - 1; i > 0; --i) {  // shuffles duplicates apart
+            int j = random.nextInt(i + 1);
+            long swap = fingerprints[i];
+            fingerprints[i] = fingerprints[j];
+            fingerprints[j] = swap;
+        }
+
+        System.out.println("Fingerprints: " + fingerprints.length + " (" + distinct + " distinct)");
+        System.out.printf("%8s %22s %22s%n", "threads", "FingerprintSet Mops/s", "ConcurrentHashMap Mops/s");
+
+        for (int threads : THREAD_COUNTS) {
+            long setBest = Long.MAX_VALUE;
+            long mapBest = Long.MAX_VALUE;
+
+            for (int round = 0; round <= ROUNDS; ++round) {  // round 0 is warmup
+                ConcurrentFingerprintSet set = new ConcurrentFingerprintSet(1024);
+                ConcurrentHashMap<Long, Long> map = new ConcurrentHashMap<>(1024);
+
+                long setTime = run(fingerprints, threads, (fp, parent) -> set.add(fp, parent) ? 1 : 0);
+                long mapTime = run(fingerprints, threads, (fp, parent) -> map.putIfAbsent(fp, parent) == null ? 1 : 0);
+
+                if (round > 0) {
+                    setBest = Math.min(setBest, setTime);
+                    mapBest = Math.min(mapBest, mapTime);
+                }
+            }
+
+            System.out.printf("%8d %22.2f %22.2f%n", threads,
+                    fingerprints.length * 1e3 / setBest, fingerprints.length * 1e3 / mapBest);
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package puzzles.bench;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.Solver;
+import puzzles.crossing.CrossingConfiguration;
+import puzzles.hoppers.model.HoppersBitConfig;
+import puzzles.hoppers.model.HoppersConfig;
+import puzzles.jam.model.JamCarConfig;
+import puzzles.jam.model.JamConfig;
+import puzzles.strings.StringsConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmark suite over the bundled puzzle files and the Strings and Crossing cases.
+ * Full solves of every file under data/jam and data/hoppers are timed along
+ * with neighbor generation, hashCode/equals and file parsing. Each benchmark
+ * runs timed iterations after warmup ones, timing operations in batches long
+ * enough that reading the clock is negligible, and the bytes the benchmark
+ * thread allocates are counted alongside. Results can be written as JSON and
+ * compared against a stored baseline.
+ * This is a dependency-free fallback for the JMH module under bench/jmh,
+ * which gives the same benchmarks JMH's forking and dead-code protection.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class PuzzleBenchmark {
+
+    /** Strings start and finish pairs solved */
+    private static final String[][] STRINGS_CASES = {{"CAT", "DOG"}, {"ABCD", "ZZZZ"}, {"AAAA", "MMMM"}};
+
+    /** Crossing pup and wolf counts solved */
+    private static final int[][] CROSSING_CASES = {{3, 3}, {10, 10}};
+
+    /** Jam file the microbenchmarks run on */
+    private static final String JAM_MICRO_FILE = "jam-10.txt";
+
+    /** Hoppers file the microbenchmarks run on */
+    private static final String HOPPERS_MICRO_FILE = "hoppers-8.txt";
+
+    /** Shortest time a batch of operations is run between clock reads */
+    private static final long BATCH_NANOS = 100_000L;
+
+    /** Most operations run between clock reads */
+    private static final int MAX_BATCH = 1 << 20;
+
+    /** Keeps benchmark results live so they are not optimized away */
+    private static volatile long sink;
+
+    /**
+     * One benchmarked operation.
+     */
+    private interface Operation {
+
+        /**
+         * Runs the operation once.
+         *
+         * @return value depending on the work done
+         * @throws IOException if the operation reads a file and fails
+         */
+        long run() throws IOException;
+    }
+
+    /** Benchmarks by name, in run order */
+    private final Map<String, Operation> benchmarks = new LinkedHashMap<>();
+
+    /** Warmup iterations per benchmark */
+    private int warmup = 2;
+
+    /** Measured iterations per benchmark */
+    private int iterations = 5;
+
+    /** Minimum length of an iteration */
+    private long iterationNanos = 500_000_000L;
+
+    /**
+     * PuzzleBenchmark constructor, registering every benchmark.
+     *
+     * @param dataDir directory holding the jam and hoppers puzzle folders
+     * @throws IOException if a puzzle file fails to load
+     */
+    public PuzzleBenchmark(Path dataDir) throws IOException {
+
+        for (File file : sortedFiles(dataDir.resolve("jam"))) {
+            JamConfig start = new JamConfig(file.getPath());
+            this.benchmarks.put("solve.jam." + baseName(file), () -> solve(start));
+        }
+
+        for (File file : sortedFiles(dataDir.resolve("hoppers"))) {
+            HoppersConfig start = new HoppersConfig(file.getPath());
+            this.benchmarks.put("solve.hoppers." + baseName(file), () -> solve(start));
+        }
+
+        for (String[] strings : STRINGS_CASES) {
+            StringsConfiguration start = new StringsConfiguration(strings[0], strings[1]);
+            this.benchmarks.put("solve.strings." + strings[0] + "-" + strings[1], () -> solve(start));
+        }
+
+        for (int[] crossing : CROSSING_CASES) {
+            CrossingConfiguration start = new CrossingConfiguration(crossing[0], crossing[1]);
+            this.benchmarks.put("solve.crossing." + crossing[0] + "-" + crossing[1], () -> solve(start));
+        }
+
+        String jamFile = dataDir.resolve("jam").resolve(JAM_MICRO_FILE).toString();
+        String hoppersFile = dataDir.resolve("hoppers").resolve(HOPPERS_MICRO_FILE).toString();
+
+        JamConfig jam = new JamConfig(jamFile);
+        JamConfig jamCopy = new JamConfig(jamFile);
+        JamCarConfig jamCars = JamCarConfig.of(jam);
+        HoppersConfig hoppers = new HoppersConfig(hoppersFile);
+        HoppersConfig hoppersCopy = new HoppersConfig(hoppersFile);
+        HoppersBitConfig hoppersBits = HoppersBitConfig.of(hoppers);
+        // equal pairs are parsed separately so equals() cannot stop at identity
+
+        this.benchmarks.put("neighbors.JamConfig", () -> jam.getNeighbors().size());
+        this.benchmarks.put("neighbors.JamCarConfig", () -> jamCars.getNeighbors().size());
+        this.benchmarks.put("neighbors.HoppersConfig", () -> hoppers.getNeighbors().size());
+        this.benchmarks.put("neighbors.HoppersBitConfig", () -> hoppersBits.getNeighbors().size());
+
+        this.benchmarks.put("hashCode.JamConfig", jam::hashCode);
+        this.benchmarks.put("hashCode.HoppersConfig", hoppers::hashCode);
+        this.benchmarks.put("equals.JamConfig", () -> jam.equals(jamCopy) ? 1 : 0);
+        this.benchmarks.put("equals.HoppersConfig", () -> hoppers.equals(hoppersCopy) ? 1 : 0);
+
+        this.benchmarks.put("parse.JamConfig", () -> new JamConfig(jamFile).getNumCols());
+        this.benchmarks.put("parse.HoppersConfig", () -> new HoppersConfig(hoppersFile).getNumCols());
+    }
+
+    /**
+     * Sets the warmup and measured iterations run per benchmark.
+     *
+     * @param warmup warmup iterations
+     * @param iterations measured iterations
+     */
+    public void setIterations(int warmup, int iterations) {
+        this.warmup = warmup;
+        this.iterations = iterations;
+    }
+
+    /**
+     * Sets the minimum length of an iteration.
+     * Operations are repeated until it has passed, but always run at least once.
+     *
+     * @param millis minimum iteration length in milliseconds
+     */
+    public void setIterationMillis(long millis) {
+        this.iterationNanos = millis * 1_000_000L;
+    }
+
+    /**
+     * Gets the names of every registered benchmark.
+     *
+     * @return benchmark names in run order
+     */
+    public List<String> getNames() {
+        return new ArrayList<>(this.benchmarks.keySet());
+    }
+
+    /**
+     * Solves a puzzle without displaying anything.
+     *
+     * @param start starting configuration
+     * @return solution path length
+     */
+    private static long solve(Configuration start) {
+        return new Solver().findPath(start, false).size();
+    }
+
+    /**
+     * Lists the puzzle files of a folder by name.
+     *
+     * @param dir puzzle folder
+     * @return puzzle files
+     * @throws IOException if the folder cannot be listed
+     */
+    private static File[] sortedFiles(Path dir) throws IOException {
+
+        File[] files = dir.toFile().listFiles((folder, name) -> name.endsWith(".txt"));
+
+        if (files == null) {
+            throw new IOException("Missing puzzle folder: " + dir);
+        }
+
+        Arrays.sort(files, (a, b) -> naturalKey(a.getName()).compareTo(naturalKey(b.getName())));
+        // puts jam-10 after jam-9
+
+        return files;
+    }
+
+    /**
+     * Pads the numbers in a file name so they sort numerically.
+     *
+     * @param name file name
+     * @return sort key
+     */
+    private static String naturalKey(String name) {
+        return Pattern.compile("\\d+").matcher(name).replaceAll(match -> "0".repeat(
+                Math.max(0, 8 - match.group().length())) + match.group());
+    }
+
+    /**
+     * Gets a file name without its extension.
+     *
+     * @param file puzzle file
+     * @return base name
+     */
+    private static String baseName(File file) {
+        return file.getName().replaceFirst("\\.txt$", "");
+    }
+
+    /**
+     * Gets bytes allocated so far by the current thread.
+     *
+     * @return allocated bytes (-1 if unsupported)
+     */
+    private static long allocatedBytes() {
+
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+
+            if (sunThreads.isThreadAllocatedMemorySupported() && sunThreads.isThreadAllocatedMemoryEnabled()) {
+                return sunThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Finds how many operations to run between clock reads.
+     * The batch is doubled until it takes at least BATCH_NANOS, so operations
+     * far shorter than a nanoTime() call are still timed accurately.
+     *
+     * @param operation operation to batch
+     * @return operations per batch
+     * @throws IOException if the operation fails
+     */
+    private static int batchSize(Operation operation) throws IOException {
+
+        for (int batch = 1; ; batch <<= 1) {  // runs until a batch is long enough
+            long start = System.nanoTime();
+
+            for (int i = 0; i < batch; ++i) {
+                sink += operation.run();
+            }
+
+            if (System.nanoTime() - start >= BATCH_NANOS || batch == MAX_BATCH) {
+                return batch;
+            }
+        }
+    }
+
+    /**
+     * Runs one benchmark.
+     *
+     * @param name benchmark name
+     * @return measured result
+     * @throws IOException if the operation fails
+     */
+    public BenchmarkResult run(String name) throws IOException {
+
+        Operation operation = this.benchmarks.get(name);
+        int batch = batchSize(operation);
+
+        double[] times = new double[this.iterations];
+        double allocation = 0;
+
+        for (int iteration = -this.warmup; iteration < this.iterations; ++iteration) {  // negative ones warm up
+            long ops = 0;
+            long allocStart = allocatedBytes();
+            long start = System.nanoTime();
+            long end;
+
+            do {
+                for (int i = 0; i < batch; ++i) {
+                    sink += operation.run();
+                }
+
+                ops += batch;
+            } while ((end = System.nanoTime()) - start < this.iterationNanos);
+
+            long allocEnd = allocatedBytes();
+
+            if (iteration >= 0) {
+                times[iteration] = (double) (end - start) / ops;
+                allocation = allocStart < 0 ? -1 : allocation + (double) (allocEnd - allocStart) / ops;
+            }
+        }
+
+        double mean = Arrays.stream(times).average().orElse(0);
+        double variance = Arrays.stream(times).map(time -> (time - mean) * (time - mean)).sum()
+                / Math.max(1, this.iterations - 1);
+
+        return new BenchmarkResult(name, this.iterations, mean, Math.sqrt(variance),
+                allocation < 0 ? -1 : allocation / this.iterations);
+    }
+
+    /**
+     * Prints current results next to a baseline and flags regressions.
+     *
+     * @param results current results
+     * @param baseline baseline nanoseconds per operation by benchmark name
+     * @param threshold slowdown in percent counted as a regression
+     * @return number of regressions
+     */
+    private static int compare(List<BenchmarkResult> results, Map<String, Double> baseline, double threshold) {
+
+        int regressions = 0;
+
+        System.out.printf("%-32s %16s %16s %9s%n", "Benchmark", "Baseline ns/op", "Current ns/op", "Change");
+
+        for (BenchmarkResult result : results) {
+            Double base = baseline.get(result.getName());
+
+            if (base == null) {
+                System.out.printf("%-32s %16s %16.1f %9s%n", result.getName(), "-", result.getScore(), "new");
+                continue;
+            }
+
+            double change = (result.getScore() - base) / base * 100;
+            boolean regressed = change > threshold;
+
+            if (regressed) {
+                regressions++;
+            }
+
+            System.out.printf("%-32s %16.1f %16.1f %+8.1f%%%s%n", result.getName(), base, result.getScore(),
+                    change, regressed ? "  REGRESSION" : "");
+        }
+
+        return regressions;
+    }
+
+    /**
+     * Benchmark entry point.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+
+        String include = ".*";
+        Path data = Path.of("data");
+        Path json = null;
+        Path baseline = null;
+        double threshold = 10;
+        int warmup = 2;
+        int iterations = 5;
+        long millis = 500;
+        boolean list = false;
+
+        try {
+
+            for (String arg : args) {
+
+                if (arg.startsWith("-include=")) {
+                    include = arg.substring(9);
+                } else if (arg.startsWith("-data=")) {
+                    data = Path.of(arg.substring(6));
+                } else if (arg.startsWith("-json=")) {
+                    json = Path.of(arg.substring(6));
+                } else if (arg.startsWith("-baseline=")) {
+                    baseline = Path.of(arg.substring(10));
+                } else if (arg.startsWith("-threshold=")) {
+                    threshold = Double.parseDouble(arg.substring(11));
+                } else if (arg.startsWith("-warmup=")) {
+                    warmup = Integer.parseInt(arg.substring(8));
+                } else if (arg.startsWith("-iterations=")) {
+                    iterations = Integer.parseInt(arg.substring(12));
+                } else if (arg.startsWith("-time=")) {
+                    millis = Long.parseLong(arg.substring(6));
+                } else if (arg.equals("-list")) {
+                    list = true;
+                } else {
+                    throw new IllegalArgumentException(arg);
+                }
+            }
+
+        } catch (IllegalArgumentException iae) {  // also catches malformed numbers
+
+            System.out.println("Usage: java PuzzleBenchmark [-include=regex] [-data=dir] [-json=file] "
+                    + "[-baseline=file [-threshold=percent]] [-warmup=n] [-iterations=n] [-time=ms] [-list]");
+            return;
+
+        }
+
+        try {
+
+            PuzzleBenchmark benchmark = new PuzzleBenchmark(data);
+            benchmark.setIterations(warmup, iterations);
+            benchmark.setIterationMillis(millis);
+
+            Pattern filter = Pattern.compile(include);
+            List<BenchmarkResult> results = new ArrayList<>();
+
+            if (!list) {
+                System.out.printf("%-32s %16s %12s %14s%n", "Benchmark", "ns/op", "+/-", "B/op");
+            }
+
+            for (String name : benchmark.getNames()) {
+
+                if (!filter.matcher(name).find()) {
+                    continue;
+                }
+
+                if (list) {
+                    System.out.println(name);
+                    continue;
+                }
+
+                BenchmarkResult result = benchmark.run(name);
+                results.add(result);
+
+                System.out.printf("%-32s %16.1f %12.1f %14.0f%n", name, result.getScore(), result.getError(),
+                        result.getAllocation());
+            }
+
+            if (json != null) {
+                BenchmarkResult.write(results, json);
+                System.out.println("Results: " + json);
+            }
+
+            if (baseline != null) {
+
+                int regressions = compare(results, BenchmarkResult.readScores(baseline), threshold);
+                System.out.println("Regressions: " + regressions);
+
+                if (regressions > 0) {
+                    System.exit(1);
+                }
+            }
+
+        } catch (IOException ioe) {
+            System.out.println("ERROR: " + ioe.getMessage());
+        }
+    }
+}
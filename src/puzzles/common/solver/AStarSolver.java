@@ -0,0 +1,122 @@
+package puzzles.common.solver;
+
+import java.util.*;
+
+/**
+ * A* solver.
+ * Expands configurations in order of moves so far plus a heuristic estimate,
+ * so with an admissible heuristic the returned path is as short as the BFS one.
+ *
+ * @param <C> configuration type the heuristic understands
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class AStarSolver<C extends Configuration> {
+
+    /** Heuristic guiding the search */
+    private final Heuristic<C> heuristic;
+
+    /** Configurations expanded by the last search */
+    private int expandedConfigs;
+
+    /**
+     * AStarSolver constructor.
+     *
+     * @param heuristic admissible heuristic
+     */
+    public AStarSolver(Heuristic<C> heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * A* algorithm to find the shortest path between two configurations.
+     *
+     * @param start starting configuration
+     * @param display whether to print config counts
+     * @return shortest path to end
+     */
+    @SuppressWarnings("unchecked")
+    public Collection<Configuration> findPath(C start, boolean display) {
+        PriorityQueue<long[]> open = new PriorityQueue<>(Comparator.<long[]>comparingLong(entry -> entry[0])
+                .thenComparingLong(entry -> entry[1]).thenComparingLong(entry -> entry[2]));
+        // entries are {f, -g, insertion order, config id}, ties go to the deepest then earliest config
+
+        List<Configuration> configs = new ArrayList<>();
+        HashMap<Configuration, Integer> costs = new HashMap<>();
+        HashMap<Configuration, Configuration> predecessors = new HashMap<>();
+
+        int totalConfigs = 1;
+        long order = 0;
+
+        this.expandedConfigs = 0;
+
+        configs.add(start);
+        costs.put(start, 0);
+        predecessors.put(start, start);
+        open.add(new long[] {this.heuristic.estimate(start), 0, order++, 0});
+
+        Configuration found = null;
+
+        while (!open.isEmpty()) {  // runs until the open list is empty
+            long[] entry = open.remove();
+            Configuration current = configs.get((int) entry[3]);
+            int cost = costs.get(current);
+
+            if (-entry[1] > cost) {
+                continue;
+                // stale entry, a cheaper route to this config was queued later
+            }
+
+            if (current.isSolution()) {
+                found = current;
+                break;
+            }
+
+            this.expandedConfigs++;
+
+            for (Configuration neighbor : current.getNeighbors()) {  // loops through all neighbors
+                totalConfigs++;
+
+                Integer known = costs.get(neighbor);
+
+                if (known == null || cost + 1 < known) {
+                    costs.put(neighbor, cost + 1);
+                    predecessors.put(neighbor, current);
+
+                    configs.add(neighbor);
+                    open.add(new long[] {cost + 1 + this.heuristic.estimate((C) neighbor),
+                            -(cost + 1), order++, configs.size() - 1});
+                }
+            }
+        }
+
+        LinkedList<Configuration> pathList = new LinkedList<>();
+
+        if (found != null) {  // constructs path based on search algorithm results
+
+            while (!found.equals(start)) {
+                pathList.addFirst(found);
+                found = predecessors.get(found);
+            }
+
+            pathList.addFirst(start);
+        }
+
+        if (display) {
+            System.out.println("Total configs: " + totalConfigs);
+            System.out.println("Unique configs: " + costs.size());
+            System.out.println("Expanded configs: " + this.expandedConfigs);
+        }
+
+        return new ArrayList<>(pathList);
+    }
+
+    /**
+     * Gets number of configurations expanded by the last search.
+     *
+     * @return expanded config count
+     */
+    public int getExpandedConfigs() {
+        return this.expandedConfigs;
+    }
+}
@@ -0,0 +1,88 @@
+package puzzles.common.solver;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Anytime solver answering within a latency.
+ * A beam search first finds some path quickly, then BFS gets the rest of the
+ * latency to find a shortest one. When BFS runs out of time the beam path is
+ * returned as APPROXIMATE. A beam path reaching a solution in as many moves
+ * as the heuristic estimates for the start is already shortest, since the
+ * estimate is a lower bound, so BFS is skipped for it.
+ *
+ * @param <C> configuration type the heuristic understands
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class AnytimeSolver<C extends Configuration> {
+
+    /** Fraction of the latency the beam search may use, the rest goes to BFS */
+    private static final int BEAM_SHARE = 2;
+
+    /** Solver for the exact search */
+    private final Solver solver;
+
+    /** Solver for the quick first path */
+    private final BeamSearch<C> beam;
+
+    /** Admissible heuristic ranking the beam */
+    private final Heuristic<C> heuristic;
+
+    /**
+     * AnytimeSolver constructor.
+     * The solver's time limit is overwritten by every search.
+     *
+     * @param solver solver for the exact search
+     * @param heuristic admissible heuristic
+     * @param beamWidth configurations kept per beam search level
+     */
+    public AnytimeSolver(Solver solver, Heuristic<C> heuristic, int beamWidth) {
+        this.solver = solver;
+        this.heuristic = heuristic;
+        this.beam = new BeamSearch<>(heuristic, beamWidth);
+    }
+
+    /**
+     * Sets a test for configurations that can never lead to a solution, for both searches.
+     *
+     * @param pruning dead configuration test (null to expand everything)
+     */
+    public void setPruning(Predicate<Configuration> pruning) {
+        this.solver.setPruning(pruning);
+        this.beam.setPruning(pruning);
+    }
+
+    /**
+     * Finds the best path it can within a latency.
+     * Results are SOLVED with a shortest path, NO_SOLUTION, CANCELLED, or
+     * APPROXIMATE with a path that may be longer than needed or stop short
+     * of a solution. BUDGET_EXCEEDED is only returned if the beam search
+     * could not make a single move.
+     *
+     * @param start starting configuration
+     * @param latencyMillis time to answer in, in milliseconds
+     * @return search result
+     */
+    public SolverResult solve(C start, long latencyMillis) {
+
+        long startTime = System.nanoTime();
+        long latency = latencyMillis * 1_000_000;
+
+        List<Configuration> path = this.beam.findPath(start, startTime + latency / BEAM_SHARE);
+
+        if (path.get(path.size() - 1).isSolution() && path.size() - 1 == this.heuristic.estimate(start)) {
+            return new SolverResult(path, new SolverStats(), null);
+            // as short as the lower bound, so proven shortest without BFS
+        }
+
+        this.solver.setTimeLimit(Math.max(1, (startTime + latency - System.nanoTime()) / 1_000_000));
+        SolverResult exact = this.solver.solve(start);
+
+        if (exact.getStatus() != SolverResult.Status.BUDGET_EXCEEDED || path.size() < 2) {
+            return exact;
+        }
+
+        return new SolverResult(SolverResult.Status.APPROXIMATE, path, exact.getStats(), null);
+    }
+}
@@ -0,0 +1,130 @@
+package puzzles.common.solver;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Beam search solver.
+ * Expands one level at a time like BFS, but only keeps the configurations
+ * with the lowest heuristic estimates of each level, so the work done is
+ * bounded by the beam width times the depth. Paths it finds are valid but
+ * not necessarily shortest, and it can miss solutions altogether.
+ *
+ * @param <C> configuration type the heuristic understands
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class BeamSearch<C extends Configuration> {
+
+    /** Heuristic ranking each level */
+    private final Heuristic<C> heuristic;
+
+    /** Configurations kept per level */
+    private final int width;
+
+    /** Test for configurations proven to have no solution below them (null for none) */
+    private Predicate<Configuration> pruning = null;
+
+    /**
+     * BeamSearch constructor.
+     *
+     * @param heuristic heuristic ranking each level
+     * @param width configurations kept per level
+     */
+    public BeamSearch(Heuristic<C> heuristic, int width) {
+        this.heuristic = heuristic;
+        this.width = width;
+    }
+
+    /**
+     * Sets a test for configurations that can never lead to a solution.
+     * Pruned configurations are kept out of the beam.
+     *
+     * @param pruning dead configuration test (null to keep everything)
+     */
+    public void setPruning(Predicate<Configuration> pruning) {
+        this.pruning = pruning;
+    }
+
+    /**
+     * Searches until a solution is generated, the beam empties or a deadline passes.
+     * Without a solution the path leads to the deepest configuration with the
+     * lowest estimate seen, the most promising one to continue from. The
+     * deadline is checked after every expansion.
+     *
+     * @param start starting configuration
+     * @param deadline System.nanoTime() to stop by
+     * @return path from start to a solution, or to the most promising configuration seen
+     */
+    @SuppressWarnings("unchecked")
+    public List<Configuration> findPath(C start, long deadline) {
+
+        HashMap<Configuration, Configuration> predecessors = new HashMap<>();
+        predecessors.put(start, start);
+
+        List<Configuration> beam = new ArrayList<>();
+        beam.add(start);
+
+        Configuration found = start.isSolution() ? start : null;
+        Configuration best = start;
+        int bestEstimate = this.heuristic.estimate(start);
+
+        while (found == null && !beam.isEmpty() && System.nanoTime() - deadline < 0) {  // searches one level per iteration
+            List<Configuration> children = new ArrayList<>();
+
+            for (Configuration current : beam) {
+
+                for (Configuration neighbor : current.getNeighbors()) {
+
+                    if (predecessors.putIfAbsent(neighbor, current) == null) {
+
+                        if (neighbor.isSolution()) {
+                            found = neighbor;
+                            break;
+                        }
+
+                        if (this.pruning == null || !this.pruning.test(neighbor)) {
+                            children.add(neighbor);
+                        }
+                    }
+                }
+
+                if (found != null || System.nanoTime() - deadline >= 0) {
+                    break;
+                    // a level cut short still ranks the children it has
+                }
+            }
+
+            long[] order = new long[children.size()];
+
+            for (int i = 0; i < order.length; ++i) {
+                order[i] = (long) this.heuristic.estimate((C) children.get(i)) << 32 | i;
+                // sorts by estimate, then by generation order
+            }
+
+            Arrays.sort(order);
+            beam = new ArrayList<>();
+
+            for (int i = 0; i < Math.min(this.width, order.length); ++i) {
+                beam.add(children.get((int) order[i]));
+            }
+
+            if (order.length > 0 && (int) (order[0] >>> 32) <= bestEstimate) {  // ties go to the deepest
+                bestEstimate = (int) (order[0] >>> 32);
+                best = beam.get(0);
+            }
+        }
+
+        LinkedList<Configuration> pathList = new LinkedList<>();
+        Configuration current = found != null ? found : best;
+
+        while (!current.equals(start)) {  // constructs path from the recorded predecessors
+            pathList.addFirst(current);
+            current = predecessors.get(current);
+        }
+
+        pathList.addFirst(start);
+
+        return new ArrayList<>(pathList);
+    }
+}
@@ -0,0 +1,30 @@
+package puzzles.common.solver;
+
+/**
+ * Flag another thread can raise to stop a search.
+ * Searches check the token between expansions, so they stop within one
+ * expansion of it being cancelled and report a cancelled result.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class CancellationToken {
+
+    /** Whether the search should stop */
+    private volatile boolean cancelled;
+
+    /**
+     * Asks every search holding this token to stop.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Was the token cancelled?
+     *
+     * @return if cancel() has been called
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+}
@@ -0,0 +1,367 @@
+package puzzles.common.solver;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free visited set for multi-threaded searches.
+ * Stores 64-bit configuration fingerprints in open-addressed primitive long
+ * arrays claimed with CAS, and records each fingerprint's predecessor
+ * fingerprint alongside it.
+ *
+ * Growing never stops the world. When a table passes half full a larger table is
+ * linked after it and new fingerprints go there. Empty slots of older tables
+ * are sealed as threads probe past them, so a fingerprint can only ever be
+ * claimed once. Each insertion also helps move a small chunk of the oldest
+ * table forward, and fully moved tables are unlinked.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class ConcurrentFingerprintSet {
+
+    /** Atomic access to long[] slots */
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /** Marks a slot that was never used */
+    private static final long EMPTY = 0L;
+
+    /** Marks an empty slot that may no longer be claimed */
+    private static final long SEALED = Long.MIN_VALUE;
+
+    /** Atomic access to Table.next */
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            NEXT = MethodHandles.lookup().findVarHandle(Table.class, "next", Table.class);
+        } catch (ReflectiveOperationException roe) {
+            throw new ExceptionInInitializerError(roe);
+        }
+    }
+
+    /** Slots moved forward per helping step */
+    private static final int MIGRATION_CHUNK = 64;
+
+    /** Oldest live table */
+    private final AtomicReference<Table> first;
+
+    /** Number of fingerprints stored */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /** Number of tables linked so far */
+    private final AtomicInteger resizes = new AtomicInteger();
+
+    /**
+     * One generation of the set.
+     */
+    private static final class Table {
+
+        /** Fingerprints, EMPTY or SEALED */
+        final long[] keys;
+
+        /** Predecessor fingerprints, 0 until written */
+        final long[] parents;
+
+        /** Capacity - 1 */
+        final int mask;
+
+        /** Fingerprints claimed in this table */
+        final AtomicInteger count = new AtomicInteger();
+
+        /** Next chunk to migrate */
+        final AtomicInteger migrateCursor = new AtomicInteger();
+
+        /** Slots finished migrating */
+        final AtomicInteger migrated = new AtomicInteger();
+
+        /** Newer, larger table (null while this table is current) */
+        volatile Table next;
+
+        /**
+         * Table constructor.
+         *
+         * @param capacity power of two slot count
+         */
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.parents = new long[capacity];
+            this.mask = capacity - 1;
+        }
+    }
+
+    /**
+     * ConcurrentFingerprintSet constructor.
+     *
+     * @param initialCapacity expected number of fingerprints
+     */
+    public ConcurrentFingerprintSet(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(16, initialCapacity) * 2 - 1) << 1;
+        this.first = new AtomicReference<>(new Table(capacity));
+    }
+
+    /**
+     * Maps a fingerprint away from the reserved slot markers.
+     *
+     * @param fingerprint raw fingerprint
+     * @return storable fingerprint
+     */
+    private static long storable(long fingerprint) {
+        return fingerprint == EMPTY || fingerprint == SEALED ? fingerprint + 1 : fingerprint;
+    }
+
+    /**
+     * Gets the first probe slot of a fingerprint.
+     *
+     * @param key storable fingerprint
+     * @param table table to probe
+     * @return slot index
+     */
+    private static int home(long key, Table table) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & table.mask;
+    }
+
+    /**
+     * Adds a fingerprint if no thread has added it before.
+     *
+     * @param fingerprint configuration fingerprint
+     * @param parent predecessor fingerprint
+     * @return true if this call added it
+     */
+    public boolean add(long fingerprint, long parent) {
+        long key = storable(fingerprint);
+        long link = storable(parent);
+
+        Table table = this.first.get();
+
+        while (true) {
+            int result = insert(table, key, link, true);
+
+            if (result > 0) {
+                helpMigrate();
+                return true;
+            }
+
+            if (result == 0) {
+                return false;
+            }
+
+            table = nextOf(table);
+        }
+    }
+
+    /**
+     * Tries to claim a fingerprint in one table.
+     *
+     * @param table table to insert into
+     * @param key storable fingerprint
+     * @param link storable predecessor fingerprint
+     * @param fresh whether the key is new to the set rather than being migrated
+     * @return 1 if inserted, 0 if already present, -1 if a newer table must be tried
+     */
+    private int insert(Table table, long key, long link, boolean fresh) {
+        int index = home(key, table);
+
+        for (int probes = 0; probes <= table.mask; ) {
+            long current = (long) SLOTS.getVolatile(table.keys, index);
+
+            if (current == key) {
+                return 0;
+            }
+
+            if (current == SEALED) {
+                return -1;
+            }
+
+            if (current == EMPTY) {
+                boolean live = table.next == null;
+                // only the newest table accepts new fingerprints, older ones get sealed
+
+                if (SLOTS.compareAndSet(table.keys, index, EMPTY, live ? key : SEALED)) {
+
+                    if (!live) {
+                        return -1;
+                    }
+
+                    SLOTS.setRelease(table.parents, index, link);
+
+                    if (fresh) {
+                        this.size.incrementAndGet();
+                    }
+
+                    if (table.count.incrementAndGet() > (table.mask + 1) / 2) {
+                        grow(table);
+                    }
+
+                    return 1;
+                }
+
+                continue;
+                // lost the race for this slot, re-read it
+            }
+
+            index = (index + 1) & table.mask;
+            probes++;
+        }
+
+        grow(table);
+        return -1;
+        // table full, moves on to a newer one
+    }
+
+    /**
+     * Links a larger table after a table, if none is linked yet.
+     *
+     * @param table table that filled up
+     */
+    private void grow(Table table) {
+
+        if (table.next == null
+                && NEXT.compareAndSet(table, (Table) null, new Table((table.mask + 1) * 2))) {
+            this.resizes.incrementAndGet();
+            // racing threads that lose the CAS simply drop their table
+        }
+    }
+
+    /**
+     * Gets the table after a table, creating it if needed.
+     *
+     * @param table current table
+     * @return next table
+     */
+    private Table nextOf(Table table) {
+        Table next = table.next;
+
+        if (next == null) {
+            grow(table);
+            next = table.next;
+        }
+
+        return next;
+    }
+
+    /**
+     * Moves one chunk of the oldest superseded table into newer tables.
+     */
+    private void helpMigrate() {
+        Table oldest = this.first.get();
+
+        if (oldest.next == null) {
+            return;
+        }
+
+        int capacity = oldest.mask + 1;
+        int start = oldest.migrateCursor.getAndAdd(MIGRATION_CHUNK);
+
+        if (start >= capacity) {
+            return;
+        }
+
+        int end = Math.min(capacity, start + MIGRATION_CHUNK);
+
+        for (int index = start; index < end; ++index) {
+            long key = (long) SLOTS.getVolatile(oldest.keys, index);
+
+            while (key == EMPTY) {  // seals the slot or picks up a late insert
+                SLOTS.compareAndSet(oldest.keys, index, EMPTY, SEALED);
+                key = (long) SLOTS.getVolatile(oldest.keys, index);
+            }
+
+            if (key != SEALED) {
+                long link;
+
+                while ((link = (long) SLOTS.getAcquire(oldest.parents, index)) == 0) {
+                    Thread.onSpinWait();
+                    // the inserting thread has claimed the key but not yet written its link
+                }
+
+                Table table = oldest.next;
+
+                while (insert(table, key, link, false) < 0) {
+                    table = nextOf(table);
+                }
+            }
+        }
+
+        if (oldest.migrated.addAndGet(end - start) == capacity) {
+            this.first.compareAndSet(oldest, oldest.next);
+            // every key now lives in a newer table
+        }
+    }
+
+    /**
+     * Finds the slot holding a fingerprint.
+     *
+     * @param fingerprint configuration fingerprint
+     * @return predecessor fingerprint, or 0 if absent
+     */
+    private long lookup(long fingerprint) {
+        long key = storable(fingerprint);
+
+        for (Table table = this.first.get(); table != null; table = table.next) {
+            int index = home(key, table);
+
+            for (int probes = 0; probes <= table.mask; ++probes) {
+                long current = (long) SLOTS.getVolatile(table.keys, index);
+
+                if (current == key) {
+                    long link;
+
+                    while ((link = (long) SLOTS.getAcquire(table.parents, index)) == 0) {
+                        Thread.onSpinWait();
+                    }
+
+                    return link;
+                }
+
+                if (current == EMPTY || current == SEALED) {
+                    break;
+                }
+
+                index = (index + 1) & table.mask;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Checks if a fingerprint has been added.
+     *
+     * @param fingerprint configuration fingerprint
+     * @return whether fingerprint is present
+     */
+    public boolean contains(long fingerprint) {
+        return lookup(fingerprint) != 0;
+    }
+
+    /**
+     * Gets the predecessor recorded with a fingerprint.
+     *
+     * @param fingerprint configuration fingerprint
+     * @return predecessor fingerprint, or 0 if absent
+     */
+    public long getParent(long fingerprint) {
+        return lookup(fingerprint);
+    }
+
+    /**
+     * Gets number of fingerprints stored.
+     *
+     * @return set size
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * Gets number of times the set has grown.
+     *
+     * @return resize count
+     */
+    public int getResizeCount() {
+        return this.resizes.get();
+    }
+}
@@ -36,6 +36,19 @@ public interface Configuration {
      */
     int hashCode();
 
+    /**
+     * Gets a 64-bit configuration fingerprint.
+     * Equal configurations must have equal fingerprints. Fingerprint-keyed
+     * structures treat equal fingerprints as equal configurations, so
+     * implementations should spread states over all 64 bits. There is no
+     * default: one spread from the 32-bit hashCode() would silently merge
+     * distinct states once a search passes a few tens of thousands, so every
+     * configuration type has to provide its own.
+     *
+     * @return fingerprint
+     */
+    long fingerprint();
+
     /**
      * Returns configuration string representation.
      *
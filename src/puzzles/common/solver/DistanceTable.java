@@ -0,0 +1,297 @@
+package puzzles.common.solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Retrograde distance-to-goal table over ranked configurations.
+ * One forward sweep marks every configuration reachable from the start, then
+ * one backward BFS from all the reachable goals through predecessors stores
+ * each one's exact distance to the nearest goal, so a hint is just a neighbor
+ * one move closer. Distances live in a paged byte table, one byte per rank.
+ *
+ * @param <C> configuration type the ranker understands
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class DistanceTable<C extends Configuration> {
+
+    /** Distance of a configuration the table knows nothing about */
+    public static final int UNKNOWN = -2;
+
+    /** Distance of a reachable configuration no goal can be reached from */
+    public static final int NO_SOLUTION = -1;
+
+    /** Longest distance a table byte can hold */
+    public static final int MAX_DISTANCE = 253;
+
+    /** Table byte of a reachable configuration with no known distance */
+    private static final byte REACHED = (byte) 0xFF;
+
+    /** First int of a saved table */
+    private static final int MAGIC = 0x44495354;
+
+    /** Saved table format, bumped whenever the layout or byte coding changes */
+    private static final int FORMAT_VERSION = 2;
+
+    /** Numbers configurations */
+    private final StateRanker<C> ranker;
+
+    /** Gets the configurations one move before a configuration */
+    private final Function<C, Collection<Configuration>> predecessors;
+
+    /** Distance plus one by rank (0 if unseen) */
+    private PagedByteTable distances;
+
+    /**
+     * DistanceTable constructor.
+     *
+     * @param ranker ranker numbering every reachable configuration
+     * @param predecessors gets the configurations one move before a configuration
+     */
+    public DistanceTable(StateRanker<C> ranker, Function<C, Collection<Configuration>> predecessors) {
+        this.ranker = ranker;
+        this.predecessors = predecessors;
+    }
+
+    /**
+     * Builds the table for every configuration reachable from a start.
+     *
+     * @param start starting configuration
+     */
+    @SuppressWarnings("unchecked")
+    public void build(C start) {
+
+        this.distances = new PagedByteTable(this.ranker.size());
+
+        long[] goals = new long[16];
+        int goalCount = 0;
+
+        long[] frontier = {this.ranker.rank(start)};
+        int frontierSize = 1;
+        this.distances.set(frontier[0], REACHED);
+
+        while (frontierSize > 0) {  // marks everything reachable and collects the goals
+            long[] next = new long[Math.max(16, frontierSize)];
+            int nextSize = 0;
+
+            for (int i = 0; i < frontierSize; ++i) {
+                C current = this.ranker.unrank(frontier[i]);
+
+                if (current.isSolution()) {
+
+                    if (goalCount == goals.length) {
+                        goals = Arrays.copyOf(goals, goalCount << 1);
+                    }
+
+                    goals[goalCount++] = frontier[i];
+                }
+
+                for (Configuration neighbor : current.getNeighbors()) {
+                    long rank = this.ranker.rank((C) neighbor);
+
+                    if (this.distances.get(rank) == 0) {
+                        this.distances.set(rank, REACHED);
+
+                        if (nextSize == next.length) {
+                            next = Arrays.copyOf(next, nextSize + (nextSize >> 1));
+                        }
+
+                        next[nextSize++] = rank;
+                    }
+                }
+            }
+
+            frontier = next;
+            frontierSize = nextSize;
+        }
+
+        frontier = goals;
+        frontierSize = goalCount;
+
+        for (int i = 0; i < goalCount; ++i) {
+            this.distances.set(goals[i], code(0));
+        }
+
+        for (int depth = 0; frontierSize > 0; ++depth) {  // runs one backward BFS level per iteration
+            long[] next = new long[Math.max(16, frontierSize)];
+            int nextSize = 0;
+
+            for (int i = 0; i < frontierSize; ++i) {
+
+                for (Configuration predecessor : this.predecessors.apply(this.ranker.unrank(frontier[i]))) {
+
+                    if (!this.ranker.covers((C) predecessor)) {
+                        continue;
+                    }
+
+                    long rank = this.ranker.rank((C) predecessor);
+
+                    if (this.distances.get(rank) == REACHED) {  // unreachable predecessors stay unseen
+
+                        if (depth + 1 > MAX_DISTANCE) {
+                            throw new IllegalStateException("Distance to goal over " + MAX_DISTANCE + " moves");
+                        }
+
+                        this.distances.set(rank, code(depth + 1));
+
+                        if (nextSize == next.length) {
+                            next = Arrays.copyOf(next, nextSize + (nextSize >> 1));
+                        }
+
+                        next[nextSize++] = rank;
+                    }
+                }
+            }
+
+            frontier = next;
+            frontierSize = nextSize;
+        }
+    }
+
+    /**
+     * Gets the table byte stored for a distance.
+     *
+     * @param distance distance to goal
+     * @return nonzero table byte
+     */
+    private static byte code(int distance) {
+        return (byte) (distance + 1);
+    }
+
+    /**
+     * Looks up the distance of a configuration to the nearest goal.
+     *
+     * @param config configuration to look up
+     * @return moves to the nearest goal, NO_SOLUTION, or UNKNOWN if not in the table
+     */
+    public int distance(C config) {
+
+        if (this.distances == null || !this.ranker.covers(config)) {
+            return UNKNOWN;
+        }
+
+        byte code = this.distances.get(this.ranker.rank(config));
+
+        if (code == 0) {
+            return UNKNOWN;
+        } else if (code == REACHED) {
+            return NO_SOLUTION;
+        }
+
+        return (code & 0xFF) - 1;
+    }
+
+    /**
+     * Gets the next step of a shortest path to a goal.
+     *
+     * @param config configuration to step from
+     * @return neighbor one move closer to a goal (null if none)
+     */
+    @SuppressWarnings("unchecked")
+    public C hint(C config) {
+
+        int distance = distance(config);
+
+        if (distance <= 0) {
+            return null;
+        }
+
+        for (Configuration neighbor : config.getNeighbors()) {
+
+            if (distance((C) neighbor) == distance - 1) {
+                return (C) neighbor;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the underlying table.
+     *
+     * @return distance table (null before build or load)
+     */
+    public PagedByteTable getTable() {
+        return this.distances;
+    }
+
+    /**
+     * Gets a key identifying a puzzle file's contents, for save() and load().
+     *
+     * @param puzzleFile puzzle file
+     * @return CRC32 of the file bytes
+     * @throws IOException if reading fails
+     */
+    public static long fileKey(Path puzzleFile) throws IOException {
+
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(puzzleFile));
+
+        return crc.getValue();
+    }
+
+    /**
+     * Writes the table to a file.
+     *
+     * @param file file to write
+     * @param key identifies the puzzle the table was built for
+     * @throws IOException if writing fails
+     */
+    public void save(Path file, long key) throws IOException {
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(key);
+            this.distances.save(out);
+        }
+    }
+
+    /**
+     * Reads a table written by save(), if it was built for the same puzzle.
+     * A table of another format version or puzzle is skipped, while a damaged
+     * one fails with an IOException.
+     *
+     * @param file file to read
+     * @param key identifies the puzzle the table is wanted for
+     * @return whether the table was loaded
+     * @throws IOException if reading fails or the file is not a valid table
+     */
+    public boolean load(Path file, long key) throws IOException {
+
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a distance table: " + file);
+            }
+
+            if (in.readInt() != FORMAT_VERSION || in.readLong() != key) {
+                return false;
+            }
+
+            PagedByteTable table = PagedByteTable.load(in, this.ranker.size());
+
+            if (in.read() != -1) {
+                throw new IOException("Trailing data after distance table: " + file);
+            }
+
+            this.distances = table;
+        }
+
+        return true;
+    }
+}
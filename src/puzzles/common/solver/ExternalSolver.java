@@ -0,0 +1,596 @@
+package puzzles.common.solver;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Disk-backed BFS solver, for state spaces that do not fit in the heap.
+ * Each BFS level lives in its own file of sorted, duplicate-free records, each
+ * record holding a packed configuration and the index of its parent record in
+ * the previous level. Children of a level are buffered, sorted and spilled to
+ * run files, then the runs are merged while dropping configurations already in
+ * earlier levels. All files are read and written through buffered channel
+ * calls rather than memory maps, so every file can be truncated and deleted as
+ * soon as it is closed on any platform, and the path is rebuilt by following
+ * parent indices back through the levels.
+ *
+ * @param <C> configuration type the codec understands
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class ExternalSolver<C extends Configuration> {
+
+    /** Bytes buffered at a time per open file */
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    /** Packs configurations into records */
+    private final StateCodec<C> codec;
+
+    /** Packed configuration bytes per record */
+    private final int stateSize;
+
+    /** Total bytes per record, configuration then parent index */
+    private final int entrySize;
+
+    /** Directory the search files are created under (null for the system temp directory) */
+    private Path directory;
+
+    /** Bytes of children buffered in memory before spilling a sorted run */
+    private int runBytes = 1 << 26;
+
+    /** Number of earlier levels checked for duplicates */
+    private int duplicateWindow = Integer.MAX_VALUE;
+
+    /** Whether to keep expanding after a solution is found */
+    private boolean fullEnumeration;
+
+    /**
+     * ExternalSolver constructor.
+     *
+     * @param codec codec packing configurations into records
+     */
+    public ExternalSolver(StateCodec<C> codec) {
+
+        this.codec = codec;
+        this.stateSize = codec.stateSize();
+        this.entrySize = this.stateSize + Long.BYTES;
+    }
+
+    /**
+     * Sets the directory search files are created under.
+     * A fast local disk matters far more here than for the in-memory solvers.
+     *
+     * @param directory parent directory for search files
+     */
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Sets the in-memory child buffer size.
+     *
+     * @param runBytes bytes buffered before each sorted run is spilled
+     */
+    public void setRunBytes(int runBytes) {
+        this.runBytes = runBytes;
+    }
+
+    /**
+     * Sets how many earlier levels new configurations are checked against.
+     * Puzzles whose moves can all be undone only need 2, puzzles whose moves
+     * can never return to an earlier level need 0. The default checks them all.
+     *
+     * @param duplicateWindow number of earlier levels to check
+     */
+    public void setDuplicateWindow(int duplicateWindow) {
+        this.duplicateWindow = duplicateWindow;
+    }
+
+    /**
+     * Enables or disables expanding the whole reachable space.
+     * The first solution found is still the one returned.
+     *
+     * @param fullEnumeration whether to continue past the first solution
+     */
+    public void setFullEnumeration(boolean fullEnumeration) {
+        this.fullEnumeration = fullEnumeration;
+    }
+
+    /**
+     * Compares the records at two buffer offsets, configuration bytes first
+     * and parent index second.
+     *
+     * @param a first record buffer
+     * @param aOffset first record offset
+     * @param b second record buffer
+     * @param bOffset second record offset
+     * @param length number of bytes compared
+     * @return negative, zero or positive like Comparator.compare
+     */
+    private static int compare(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        return Arrays.compareUnsigned(a, aOffset, aOffset + length, b, bOffset, bOffset + length);
+    }
+
+    /**
+     * Sorts the records in a buffer.
+     *
+     * @param buffer record buffer
+     * @param count number of records
+     * @return record indices in sorted order
+     */
+    private int[] sortRecords(byte[] buffer, int count) {
+
+        int[] order = new int[count];
+        int[] scratch = new int[count];
+
+        for (int i = 0; i < count; ++i) {
+            order[i] = i;
+        }
+
+        for (int width = 1; width < count; width *= 2) {  // bottom-up merge sort, stable and allocation free
+
+            for (int low = 0; low < count; low += 2 * width) {
+                int mid = Math.min(low + width, count);
+                int high = Math.min(low + 2 * width, count);
+                int i = low;
+                int j = mid;
+
+                for (int k = low; k < high; ++k) {
+
+                    if (j >= high || (i < mid && compare(buffer, order[i] * this.entrySize,
+                            buffer, order[j] * this.entrySize, this.entrySize) <= 0)) {
+                        scratch[k] = order[i++];
+                    } else {
+                        scratch[k] = order[j++];
+                    }
+                }
+            }
+
+            int[] swap = order;
+            order = scratch;
+            scratch = swap;
+        }
+
+        return order;
+    }
+
+    /**
+     * Sorts buffered children and writes them to a new run file.
+     *
+     * @param buffer record buffer
+     * @param count number of records
+     * @param file run file to create
+     */
+    private void spillRun(byte[] buffer, int count, Path file) throws IOException {
+
+        try (RecordWriter writer = new RecordWriter(file, this.entrySize)) {
+
+            for (int index : sortRecords(buffer, count)) {
+                writer.write(buffer, index * this.entrySize);
+            }
+        }
+    }
+
+    /**
+     * Merges sorted runs into the next level file, dropping repeats and
+     * configurations already present in earlier levels.
+     *
+     * @param runs sorted run files
+     * @param earlier earlier level files to check
+     * @param file level file to create
+     * @return number of records written
+     */
+    private long mergeRuns(List<Path> runs, List<Path> earlier, Path file) throws IOException {
+
+        List<RecordReader> readers = new ArrayList<>();
+        int readerBytes = Math.min(BUFFER_BYTES, this.runBytes / Math.max(1, runs.size() + earlier.size()));
+        // shares the child buffer budget between the files open at once, however many runs were spilled
+        PriorityQueue<Cursor> merge = new PriorityQueue<>(
+                (a, b) -> compare(a.entry, 0, b.entry, 0, this.entrySize));
+        List<Cursor> seen = new ArrayList<>();
+
+        try (RecordWriter writer = new RecordWriter(file, this.entrySize)) {
+
+            for (Path run : runs) {
+                RecordReader reader = new RecordReader(run, this.entrySize, readerBytes);
+                readers.add(reader);
+
+                Cursor cursor = new Cursor(reader);
+
+                if (cursor.advance()) {
+                    merge.add(cursor);
+                }
+            }
+
+            for (Path level : earlier) {
+                RecordReader reader = new RecordReader(level, this.entrySize, readerBytes);
+                readers.add(reader);
+
+                Cursor cursor = new Cursor(reader);
+
+                if (cursor.advance()) {
+                    seen.add(cursor);
+                }
+            }
+
+            byte[] last = new byte[this.stateSize];
+            boolean first = true;
+
+            while (!merge.isEmpty()) {  // runs until every run is drained
+                Cursor next = merge.remove();
+
+                if (first || compare(last, 0, next.entry, 0, this.stateSize) != 0) {
+                    // the first copy of a configuration carries the lowest parent index
+                    boolean duplicate = false;
+
+                    for (Cursor level : seen) {  // walks each earlier level up to the candidate
+
+                        while (!level.done && compare(level.entry, 0, next.entry, 0, this.stateSize) < 0) {
+                            level.advance();
+                        }
+
+                        if (!level.done && compare(level.entry, 0, next.entry, 0, this.stateSize) == 0) {
+                            duplicate = true;
+                            break;
+                        }
+                    }
+
+                    if (!duplicate) {
+                        writer.write(next.entry, 0);
+                    }
+
+                    System.arraycopy(next.entry, 0, last, 0, this.stateSize);
+                    first = false;
+                }
+
+                if (next.advance()) {
+                    merge.add(next);
+                }
+            }
+
+            return writer.count;
+
+        } finally {
+
+            for (RecordReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Disk-backed BFS algorithm to find the shortest path between two configurations.
+     *
+     * @param start starting configuration
+     * @param display whether to print config counts and per-level sizes
+     * @return BFS shortest path to end
+     */
+    @SuppressWarnings("unchecked")
+    public Collection<Configuration> findPath(C start, boolean display) throws IOException {
+
+        Path workDir = this.directory == null ? Files.createTempDirectory("bfs")
+                : Files.createTempDirectory(Files.createDirectories(this.directory), "bfs");
+
+        List<Path> levels = new ArrayList<>();
+        byte[] buffer = new byte[Math.max(1, this.runBytes / this.entrySize) * this.entrySize];
+        ByteBuffer packer = ByteBuffer.wrap(buffer);
+        byte[] entry = new byte[this.entrySize];
+
+        long totalConfigs = 1;
+        long uniqueConfigs = 1;
+
+        int foundLevel = -1;
+        long foundIndex = -1;
+
+        try {
+            levels.add(workDir.resolve("level-0.bin"));
+
+            try (RecordWriter writer = new RecordWriter(levels.get(0), this.entrySize)) {
+                this.codec.encode(start, packer);
+                packer.putLong(-1);
+                writer.write(buffer, 0);
+            }
+
+            for (int depth = 0; foundLevel == -1 || this.fullEnumeration; ++depth) {  // one BFS level per iteration
+                List<Path> runs = new ArrayList<>();
+                packer.clear();
+
+                try (RecordReader level = new RecordReader(levels.get(depth), this.entrySize, BUFFER_BYTES)) {
+
+                    for (long index = 0; index < level.count; ++index) {
+                        level.read(index, entry, 0);
+                        C current = this.codec.decode(ByteBuffer.wrap(entry, 0, this.stateSize));
+
+                        if (current.isSolution()) {
+
+                            if (foundLevel == -1) {
+                                foundLevel = depth;
+                                foundIndex = index;
+                            }
+
+                            if (!this.fullEnumeration) {
+                                break;
+                            }
+
+                            continue;
+                        }
+
+                        for (Configuration neighbor : current.getNeighbors()) {
+                            totalConfigs++;
+
+                            this.codec.encode((C) neighbor, packer);
+                            packer.putLong(index);
+
+                            if (!packer.hasRemaining()) {
+                                runs.add(workDir.resolve("run-" + runs.size() + ".bin"));
+                                spillRun(buffer, buffer.length / this.entrySize, runs.get(runs.size() - 1));
+                                packer.clear();
+                            }
+                        }
+                    }
+                }
+
+                if (foundLevel != -1 && !this.fullEnumeration) {
+                    break;
+                }
+
+                if (packer.position() > 0) {
+                    runs.add(workDir.resolve("run-" + runs.size() + ".bin"));
+                    spillRun(buffer, packer.position() / this.entrySize, runs.get(runs.size() - 1));
+                }
+
+                Path next = workDir.resolve("level-" + (depth + 1) + ".bin");
+                List<Path> earlier = levels.subList(Math.max(0, levels.size() - this.duplicateWindow), levels.size());
+
+                long added = mergeRuns(runs, earlier, next);
+                levels.add(next);
+
+                for (Path run : runs) {
+                    Files.delete(run);
+                }
+
+                if (display) {
+                    System.out.println("Level " + (depth + 1) + ": " + added + " configs, " + runs.size() + " runs");
+                }
+
+                uniqueConfigs += added;
+
+                if (added == 0) {
+                    break;
+                }
+            }
+
+            LinkedList<Configuration> pathList = new LinkedList<>();
+
+            for (int depth = foundLevel; depth >= 0; --depth) {  // follows parent indices back to the start
+
+                try (RecordReader level = new RecordReader(levels.get(depth), this.entrySize, BUFFER_BYTES)) {
+                    level.read(foundIndex, entry, 0);
+                }
+
+                pathList.addFirst(this.codec.decode(ByteBuffer.wrap(entry, 0, this.stateSize)));
+                foundIndex = ByteBuffer.wrap(entry, this.stateSize, Long.BYTES).getLong();
+            }
+
+            if (display) {
+                System.out.println("Total configs: " + totalConfigs);
+                System.out.println("Unique configs: " + uniqueConfigs);
+            }
+
+            return new ArrayList<>(pathList);
+
+        } finally {
+
+            try (var files = Files.list(workDir)) {  // removes level files and any runs left by a failure
+
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+
+            Files.delete(workDir);
+        }
+    }
+
+    /**
+     * Appends fixed-size records to a file through a write buffer.
+     */
+    private static final class RecordWriter implements Closeable {
+
+        /** Open file */
+        private final FileChannel channel;
+
+        /** Bytes per record */
+        private final int entrySize;
+
+        /** Records not yet written, a whole number of records long */
+        private final ByteBuffer buffer;
+
+        /** Records written */
+        long count;
+
+        /**
+         * RecordWriter constructor.
+         *
+         * @param file file to create or overwrite
+         * @param entrySize bytes per record
+         */
+        RecordWriter(Path file, int entrySize) throws IOException {
+
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            this.entrySize = entrySize;
+            this.buffer = ByteBuffer.allocate(Math.max(1, BUFFER_BYTES / entrySize) * entrySize);
+        }
+
+        /**
+         * Appends one record.
+         *
+         * @param source buffer holding the record
+         * @param offset record offset in the buffer
+         */
+        void write(byte[] source, int offset) throws IOException {
+
+            if (!this.buffer.hasRemaining()) {
+                flush();
+            }
+
+            this.buffer.put(source, offset, this.entrySize);
+            this.count++;
+        }
+
+        /**
+         * Writes out the buffered records.
+         */
+        private void flush() throws IOException {
+
+            this.buffer.flip();
+
+            while (this.buffer.hasRemaining()) {  // a channel may write only part of the buffer
+                this.channel.write(this.buffer);
+            }
+
+            this.buffer.clear();
+        }
+
+        /**
+         * Writes out the buffered records and closes the file.
+         */
+        @Override
+        public void close() throws IOException {
+
+            try {
+                flush();
+            } finally {
+                this.channel.close();
+            }
+        }
+    }
+
+    /**
+     * Reads fixed-size records from a file through a read buffer.
+     */
+    private static final class RecordReader implements Closeable {
+
+        /** Open file */
+        private final FileChannel channel;
+
+        /** Bytes per record */
+        private final int entrySize;
+
+        /** Records read in, a whole number of records long */
+        private final ByteBuffer buffer;
+
+        /** Records the buffer holds when full */
+        private final long windowRecords;
+
+        /** Index of the first record in the buffer (-1 before the first read) */
+        private long windowFirst = -1;
+
+        /** Records in the file */
+        final long count;
+
+        /**
+         * RecordReader constructor.
+         *
+         * @param file file to read
+         * @param entrySize bytes per record
+         * @param bufferBytes bytes read at a time, rounded down to whole records (at least one)
+         */
+        RecordReader(Path file, int entrySize, int bufferBytes) throws IOException {
+
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.entrySize = entrySize;
+            this.windowRecords = Math.max(1, bufferBytes / entrySize);
+            this.buffer = ByteBuffer.allocate((int) this.windowRecords * entrySize);
+            this.count = this.channel.size() / entrySize;
+        }
+
+        /**
+         * Copies one record out.
+         *
+         * @param index record index
+         * @param target buffer receiving the record
+         * @param offset offset in the receiving buffer
+         */
+        void read(long index, byte[] target, int offset) throws IOException {
+
+            if (this.windowFirst == -1 || index < this.windowFirst || index >= this.windowFirst + this.windowRecords) {
+                this.windowFirst = index - index % this.windowRecords;
+                long position = this.windowFirst * this.entrySize;
+
+                this.buffer.clear();
+                this.buffer.limit((int) (Math.min(this.windowRecords, this.count - this.windowFirst) * this.entrySize));
+
+                while (this.buffer.hasRemaining()) {  // a channel may read only part of the buffer
+
+                    if (this.channel.read(this.buffer, position + this.buffer.position()) < 0) {
+                        throw new EOFException("Record file ended early");
+                    }
+                }
+            }
+
+            this.buffer.get((int) ((index - this.windowFirst) * this.entrySize), target, offset, this.entrySize);
+        }
+
+        /**
+         * Closes the file.
+         */
+        @Override
+        public void close() throws IOException {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Sequential position in a record file.
+     */
+    private static final class Cursor {
+
+        /** File being walked */
+        private final RecordReader reader;
+
+        /** Next record index */
+        private long next;
+
+        /** Current record */
+        final byte[] entry;
+
+        /** Whether the file is exhausted */
+        boolean done;
+
+        /**
+         * Cursor constructor.
+         *
+         * @param reader file to walk
+         */
+        Cursor(RecordReader reader) {
+
+            this.reader = reader;
+            this.entry = new byte[reader.entrySize];
+        }
+
+        /**
+         * Moves to the next record.
+         *
+         * @return false once the file is exhausted
+         */
+        boolean advance() throws IOException {
+
+            if (this.next >= this.reader.count) {
+                this.done = true;
+                return false;
+            }
+
+            this.reader.read(this.next++, this.entry, 0);
+            return true;
+        }
+    }
+}
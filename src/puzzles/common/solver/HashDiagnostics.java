@@ -0,0 +1,119 @@
+package puzzles.common.solver;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * Hash collision diagnostics.
+ * Replays a key set into the bucket layout java.util.HashMap would use for it
+ * and reports how evenly the keys spread.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class HashDiagnostics {
+
+    /** Default HashMap load factor */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /** Number of keys measured */
+    private final int entries;
+
+    /** Number of buckets in the simulated table */
+    private final int buckets;
+
+    /** Number of buckets holding at least one key */
+    private final int occupiedBuckets;
+
+    /** Largest number of keys sharing one bucket */
+    private final int maxBucket;
+
+    /** Number of distinct hashcodes among the keys */
+    private final int distinctHashes;
+
+    /** Average number of key comparisons for a successful lookup */
+    private final double averageProbeLength;
+
+    /**
+     * HashDiagnostics constructor.
+     *
+     * @param keys keys to measure
+     */
+    public HashDiagnostics(Collection<?> keys) {
+
+        this.entries = keys.size();
+        this.buckets = tableSizeFor((int) (this.entries / LOAD_FACTOR) + 1);
+
+        int[] counts = new int[this.buckets];
+        HashSet<Integer> hashes = new HashSet<>();
+
+        for (Object key : keys) {
+            int h = key.hashCode();
+            hashes.add(h);
+            counts[(h ^ (h >>> 16)) & (this.buckets - 1)]++;
+            // same spreading and indexing as java.util.HashMap
+        }
+
+        int occupied = 0;
+        int max = 0;
+        long probes = 0;
+
+        for (int count : counts) {
+
+            if (count > 0) {
+                occupied++;
+                max = Math.max(max, count);
+                probes += (long) count * (count + 1) / 2;
+                // the i-th key of a chain takes i comparisons to find
+            }
+        }
+
+        this.occupiedBuckets = occupied;
+        this.maxBucket = max;
+        this.distinctHashes = hashes.size();
+        this.averageProbeLength = this.entries == 0 ? 0 : (double) probes / this.entries;
+    }
+
+    /**
+     * Rounds a capacity up to a power of two.
+     *
+     * @param capacity requested capacity
+     * @return table size
+     */
+    private static int tableSizeFor(int capacity) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(Math.max(capacity - 1, 1));
+        return Math.max(n + 1, 16);
+    }
+
+    /**
+     * Gets average probe length.
+     *
+     * @return average comparisons per successful lookup
+     */
+    public double getAverageProbeLength() {
+        return this.averageProbeLength;
+    }
+
+    /**
+     * Gets largest bucket size.
+     *
+     * @return largest bucket size
+     */
+    public int getMaxBucket() {
+        return this.maxBucket;
+    }
+
+    /**
+     * Returns diagnostics report.
+     *
+     * @return report string
+     */
+    @Override
+    public String toString() {
+        return "Hash entries: " + this.entries + "\n"
+                + "Distinct hashcodes: " + this.distinctHashes + "\n"
+                + "Buckets occupied: " + this.occupiedBuckets + " / " + this.buckets
+                + String.format(" (%.1f%%)", 100.0 * this.occupiedBuckets / this.buckets) + "\n"
+                + "Largest bucket: " + this.maxBucket + "\n"
+                + String.format("Average probe length: %.3f", this.averageProbeLength);
+    }
+}
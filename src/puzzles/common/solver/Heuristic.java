@@ -0,0 +1,19 @@
+package puzzles.common.solver;
+
+/**
+ * Interface for informed search heuristics.
+ * Estimates must never exceed the true number of moves to a solution, or
+ * the informed solvers lose their optimality guarantee.
+ *
+ * @param <C> configuration type the heuristic understands
+ */
+public interface Heuristic<C extends Configuration> {
+
+    /**
+     * Estimates the number of moves left to reach a solution.
+     *
+     * @param config configuration to estimate
+     * @return admissible lower bound on the moves to a solution
+     */
+    int estimate(C config);
+}
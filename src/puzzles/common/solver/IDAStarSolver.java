@@ -0,0 +1,133 @@
+package puzzles.common.solver;
+
+import java.util.*;
+
+/**
+ * IDA* solver.
+ * Runs depth-first searches bounded by moves so far plus a heuristic estimate,
+ * raising the bound to the smallest value that exceeded it each iteration.
+ * Memory use is only the current path, at the cost of re-expanding
+ * configurations across iterations and through transpositions.
+ *
+ * @param <C> configuration type the heuristic understands
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class IDAStarSolver<C extends Configuration> {
+
+    /** Marks a branch that reached a solution */
+    private static final int FOUND = -1;
+
+    /** Heuristic guiding the search */
+    private final Heuristic<C> heuristic;
+
+    /** Configurations expanded by the last search */
+    private int expandedConfigs;
+
+    /**
+     * IDAStarSolver constructor.
+     *
+     * @param heuristic admissible heuristic
+     */
+    public IDAStarSolver(Heuristic<C> heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * IDA* algorithm to find the shortest path between two configurations.
+     *
+     * @param start starting configuration
+     * @param display whether to print config counts
+     * @return shortest path to end
+     */
+    public Collection<Configuration> findPath(C start, boolean display) {
+        ArrayList<Configuration> path = new ArrayList<>();
+        HashSet<Configuration> onPath = new HashSet<>();
+
+        this.expandedConfigs = 0;
+
+        path.add(start);
+        onPath.add(start);
+
+        int bound = this.heuristic.estimate(start);
+        int iterations = 0;
+
+        while (true) {  // deepens until a solution is found or nothing exceeds the bound
+            iterations++;
+            int next = search(path, onPath, 0, bound);
+
+            if (next == FOUND) {
+                break;
+            }
+
+            if (next == Integer.MAX_VALUE) {
+                path.clear();
+                break;
+            }
+
+            bound = next;
+        }
+
+        if (display) {
+            System.out.println("Iterations: " + iterations);
+            System.out.println("Expanded configs: " + this.expandedConfigs);
+        }
+
+        return path;
+    }
+
+    /**
+     * Bounded depth-first search below the last configuration on the path.
+     *
+     * @param path current path, extended in place when a solution is found
+     * @param onPath configurations on the current path
+     * @param cost moves taken to reach the last configuration
+     * @param bound current f bound
+     * @return FOUND, or the smallest f value above the bound
+     */
+    @SuppressWarnings("unchecked")
+    private int search(ArrayList<Configuration> path, HashSet<Configuration> onPath, int cost, int bound) {
+        Configuration current = path.get(path.size() - 1);
+        int f = cost + this.heuristic.estimate((C) current);
+
+        if (f > bound) {
+            return f;
+        }
+
+        if (current.isSolution()) {
+            return FOUND;
+        }
+
+        this.expandedConfigs++;
+        int min = Integer.MAX_VALUE;
+
+        for (Configuration neighbor : current.getNeighbors()) {
+
+            if (onPath.add(neighbor)) {  // skips cycles back onto the current path
+                path.add(neighbor);
+
+                int result = search(path, onPath, cost + 1, bound);
+
+                if (result == FOUND) {
+                    return FOUND;
+                }
+
+                min = Math.min(min, result);
+
+                path.remove(path.size() - 1);
+                onPath.remove(neighbor);
+            }
+        }
+
+        return min;
+    }
+
+    /**
+     * Gets number of configurations expanded by the last search.
+     *
+     * @return expanded config count
+     */
+    public int getExpandedConfigs() {
+        return this.expandedConfigs;
+    }
+}
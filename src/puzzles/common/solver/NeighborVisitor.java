@@ -0,0 +1,27 @@
+package puzzles.common.solver;
+
+/**
+ * Callback receiving neighbors from StreamingConfiguration.forEachNeighbor.
+ */
+@FunctionalInterface
+public interface NeighborVisitor {
+
+    /**
+     * Asks whether a neighbor should be built at all.
+     * Called with the neighbor's fingerprint before it is allocated, so
+     * searches can skip children they have already seen.
+     *
+     * @param fingerprint neighbor fingerprint
+     * @return whether to build the neighbor and pass it to accept
+     */
+    default boolean wants(long fingerprint) {
+        return true;
+    }
+
+    /**
+     * Receives a neighbor.
+     *
+     * @param neighbor neighbor configuration
+     */
+    void accept(Configuration neighbor);
+}
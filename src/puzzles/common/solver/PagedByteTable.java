@@ -0,0 +1,184 @@
+package puzzles.common.solver;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Byte table over a large index space, allocated a page at a time.
+ * A directory of fixed-size pages covers the whole space, and a page is only
+ * allocated when one of its bytes is first set, so sparse tables cost about
+ * a pointer per page plus the pages actually touched. Unset bytes read as 0.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class PagedByteTable {
+
+    /** Log2 of the bytes per page */
+    private static final int PAGE_BITS = 12;
+
+    /** Bytes per page */
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    /** Number of indices */
+    private final long size;
+
+    /** Pages by page index (null until touched) */
+    private final byte[][] pages;
+
+    /** Number of pages allocated */
+    private int pageCount;
+
+    /**
+     * PagedByteTable constructor.
+     *
+     * @param size number of indices
+     */
+    public PagedByteTable(long size) {
+
+        long directory = (size + PAGE_SIZE - 1) >>> PAGE_BITS;
+
+        if (directory > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many indices for a paged table: " + size);
+        }
+
+        this.size = size;
+        this.pages = new byte[(int) directory][];
+    }
+
+    /**
+     * Gets a byte.
+     *
+     * @param index table index
+     * @return stored byte (0 if never set)
+     */
+    public byte get(long index) {
+        byte[] page = this.pages[(int) (index >>> PAGE_BITS)];
+        return page == null ? 0 : page[(int) index & (PAGE_SIZE - 1)];
+    }
+
+    /**
+     * Sets a byte, allocating its page if needed.
+     *
+     * @param index table index
+     * @param value byte to store
+     */
+    public void set(long index, byte value) {
+
+        int p = (int) (index >>> PAGE_BITS);
+
+        if (this.pages[p] == null) {
+            this.pages[p] = new byte[(int) Math.min(PAGE_SIZE, this.size - ((long) p << PAGE_BITS))];
+            // the last page only covers the indices left
+            this.pageCount++;
+        }
+
+        this.pages[p][(int) index & (PAGE_SIZE - 1)] = value;
+    }
+
+    /**
+     * Gets number of indices.
+     *
+     * @return table size
+     */
+    public long size() {
+        return this.size;
+    }
+
+    /**
+     * Gets number of pages allocated so far.
+     *
+     * @return allocated page count
+     */
+    public int getPageCount() {
+        return this.pageCount;
+    }
+
+    /**
+     * Gets number of pages covering the table.
+     *
+     * @return directory size
+     */
+    public int getDirectorySize() {
+        return this.pages.length;
+    }
+
+    /**
+     * Writes the table, storing only the allocated pages.
+     *
+     * @param out output to write to
+     * @throws IOException if writing fails
+     */
+    public void save(DataOutput out) throws IOException {
+
+        out.writeLong(this.size);
+        out.writeInt(this.pageCount);
+
+        for (int p = 0; p < this.pages.length; ++p) {
+
+            if (this.pages[p] != null) {
+                out.writeInt(p);
+                out.write(this.pages[p]);
+            }
+        }
+    }
+
+    /**
+     * Reads a table written by save().
+     * The header and page directory are checked before anything is allocated,
+     * so a damaged file fails with an IOException instead of a runtime error.
+     *
+     * @param in input to read from
+     * @param expectedSize number of indices the table must have
+     * @return table read
+     * @throws IOException if reading fails or the data is not a table of expectedSize
+     */
+    public static PagedByteTable load(DataInput in, long expectedSize) throws IOException {
+
+        long size = in.readLong();
+
+        if (size != expectedSize) {
+            throw new IOException("Table has " + size + " indices, expected " + expectedSize);
+        }
+
+        PagedByteTable table;
+
+        try {
+            table = new PagedByteTable(size);
+        } catch (IllegalArgumentException iae) {
+            throw new IOException("Bad table size: " + size, iae);
+        }
+
+        int pageCount = in.readInt();
+
+        if (pageCount < 0 || pageCount > table.pages.length) {
+            throw new IOException("Bad page count: " + pageCount);
+        }
+
+        int last = -1;
+
+        for (int i = 0; i < pageCount; ++i) {
+            int p = in.readInt();
+
+            if (p <= last || p >= table.pages.length) {  // save() writes pages in increasing order
+                throw new IOException("Bad page index: " + p);
+            }
+
+            table.set((long) p << PAGE_BITS, (byte) 0);
+            in.readFully(table.pages[p]);
+            // allocates the page, then fills it
+            last = p;
+        }
+
+        return table;
+    }
+
+    /**
+     * Gets the heap used by the directory and the allocated pages.
+     *
+     * @return approximate bytes in use
+     */
+    public long memoryBytes() {
+        return this.pages.length * 8L + this.pageCount * (long) PAGE_SIZE;
+    }
+}
@@ -0,0 +1,329 @@
+package puzzles.common.solver;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Level-synchronous parallel BFS solver.
+ * Each BFS level is expanded across a fork/join pool, so workers call
+ * getNeighbors() concurrently, then the children are merged into the visited
+ * map in frontier order. The merge order matches the order Solver dequeues
+ * configurations in, so the returned path is the same for any thread count.
+ * With determinism turned off, workers instead claim children directly in a
+ * shared ConcurrentFingerprintSet and skip the serial merge.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class ParallelSolver {
+
+    /** Pool the levels are expanded on (null to create one per search) */
+    private final ForkJoinPool pool;
+
+    /** Worker threads of the pool created per search */
+    private final int parallelism;
+
+    /** Whether the returned path must match the serial solver */
+    private boolean deterministic = true;
+
+    /**
+     * ParallelSolver constructor using the common fork/join pool.
+     */
+    public ParallelSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * ParallelSolver constructor using a dedicated pool.
+     * The pool is created for each search and shut down when it finishes, so
+     * no worker threads outlive a search.
+     *
+     * @param parallelism number of worker threads
+     */
+    public ParallelSolver(int parallelism) {
+        this.pool = null;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * ParallelSolver constructor using a given pool.
+     * The pool stays owned by the caller and is never shut down here.
+     *
+     * @param pool pool to expand levels on
+     */
+    public ParallelSolver(ForkJoinPool pool) {
+        this.pool = pool;
+        this.parallelism = pool.getParallelism();
+    }
+
+    /**
+     * Enables or disables deterministic merging.
+     * Non-deterministic solves still return a shortest path, but which one
+     * depends on thread timing.
+     *
+     * @param deterministic whether to merge children in serial BFS order
+     */
+    public void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * Parallel BFS algorithm to find the shortest path between two configurations.
+     *
+     * @param start starting configuration
+     * @param display whether to print config counts and per-level timing
+     * @return BFS shortest path to end
+     */
+    public Collection<Configuration> findPath(Configuration start, boolean display) {
+
+        ForkJoinPool searchPool = this.pool != null ? this.pool : new ForkJoinPool(this.parallelism);
+
+        try {
+            return this.deterministic ? findPathMerged(start, display, searchPool)
+                    : findPathShared(start, display, searchPool);
+        } finally {
+
+            if (searchPool != this.pool) {
+                searchPool.shutdown();
+                // every level was waited on, so the workers are idle and exit right away
+            }
+        }
+    }
+
+    /**
+     * Parallel BFS that merges each level's children in serial BFS order.
+     *
+     * @param start starting configuration
+     * @param display whether to print config counts and per-level timing
+     * @param pool pool to expand levels on
+     * @return BFS shortest path to end
+     */
+    private Collection<Configuration> findPathMerged(Configuration start, boolean display, ForkJoinPool pool) {
+
+        HashMap<Configuration, Configuration> predecessors = new HashMap<>();
+        List<Configuration> frontier = new ArrayList<>();
+
+        int totalConfigs = 1;
+        int uniqueConfigs = 1;
+        int depth = 0;
+
+        frontier.add(start);
+        predecessors.put(start, start);
+
+        Configuration found = null;
+
+        while (found == null && !frontier.isEmpty()) {  // runs one BFS level per iteration
+            long levelStart = System.nanoTime();
+
+            List<Configuration> level = frontier;
+            boolean[] solutions = new boolean[level.size()];
+            List<List<Configuration>> children = new ArrayList<>(Collections.nCopies(level.size(), null));
+
+            try {
+
+                pool.submit(() -> IntStream.range(0, level.size()).parallel().forEach(i -> {
+                    Configuration current = level.get(i);
+
+                    if (current.isSolution()) {
+                        solutions[i] = true;
+                        return;
+                    }
+
+                    List<Configuration> fresh = new ArrayList<>();
+
+                    for (Configuration neighbor : current.getNeighbors()) {
+                        fresh.add(predecessors.containsKey(neighbor) ? null : neighbor);
+                        // drops configs seen in earlier levels, the map is read-only here
+                    }
+
+                    children.set(i, fresh);
+                })).get();
+
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException("Parallel expansion failed", e);
+            }
+
+            long expandEnd = System.nanoTime();
+            frontier = new ArrayList<>();
+
+            for (int i = 0; i < level.size(); ++i) {  // merges children in serial BFS order
+
+                if (solutions[i]) {
+                    found = level.get(i);
+                    break;
+                }
+
+                for (Configuration neighbor : children.get(i)) {
+                    totalConfigs++;
+
+                    if (neighbor != null && !predecessors.containsKey(neighbor)) {
+                        uniqueConfigs++;
+
+                        predecessors.put(neighbor, level.get(i));
+                        frontier.add(neighbor);
+                    }
+                }
+            }
+
+            if (display) {
+                System.out.printf("Level %d: %d configs, expand %.1f ms, merge %.1f ms%n", depth, level.size(),
+                        (expandEnd - levelStart) / 1e6, (System.nanoTime() - expandEnd) / 1e6);
+            }
+
+            depth++;
+        }
+
+        LinkedList<Configuration> pathList = new LinkedList<>();
+
+        if (found != null) {  // constructs path based on search algorithm results
+            Configuration current = found;
+
+            while (!current.equals(start)) {
+                pathList.addFirst(current);
+                current = predecessors.get(current);
+            }
+
+            pathList.addFirst(start);
+        }
+
+        if (display) {
+            System.out.println("Threads: " + pool.getParallelism());
+            System.out.println("Total configs: " + totalConfigs);
+            System.out.println("Unique configs: " + uniqueConfigs);
+        }
+
+        return new ArrayList<>(pathList);
+    }
+
+    /**
+     * Parallel BFS where workers claim children in a shared lock-free visited set.
+     * Only fingerprints and predecessor fingerprints are kept, so the path is
+     * rebuilt by replaying the fingerprint chain forward from the start.
+     *
+     * @param start starting configuration
+     * @param display whether to print config counts and per-level timing
+     * @param pool pool to expand levels on
+     * @return BFS shortest path to end
+     */
+    private Collection<Configuration> findPathShared(Configuration start, boolean display, ForkJoinPool pool) {
+        ConcurrentFingerprintSet visited = new ConcurrentFingerprintSet(1 << 12);
+        List<Configuration> frontier = new ArrayList<>();
+
+        LongAdder totalConfigs = new LongAdder();
+        int depth = 0;
+
+        frontier.add(start);
+        visited.add(start.fingerprint(), start.fingerprint());
+        totalConfigs.increment();
+
+        AtomicReference<Configuration> found = new AtomicReference<>();
+
+        while (found.get() == null && !frontier.isEmpty()) {  // runs one BFS level per iteration
+            long levelStart = System.nanoTime();
+
+            List<Configuration> level = frontier;
+            List<List<Configuration>> children = new ArrayList<>(Collections.nCopies(level.size(), null));
+
+            try {
+
+                pool.submit(() -> IntStream.range(0, level.size()).parallel().forEach(i -> {
+                    Configuration current = level.get(i);
+                    List<Configuration> claimed = new ArrayList<>();
+
+                    if (current.isSolution()) {
+                        found.compareAndSet(null, current);
+                    } else {
+
+                        for (Configuration neighbor : current.getNeighbors()) {
+                            totalConfigs.increment();
+
+                            if (visited.add(neighbor.fingerprint(), current.fingerprint())) {
+                                claimed.add(neighbor);
+                                // first worker to reach a config owns it
+                            }
+                        }
+                    }
+
+                    children.set(i, claimed);
+                })).get();
+
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException("Parallel expansion failed", e);
+            }
+
+            frontier = new ArrayList<>();
+
+            for (List<Configuration> claimed : children) {
+                frontier.addAll(claimed);
+            }
+
+            if (display) {
+                System.out.printf("Level %d: %d configs, expand %.1f ms%n", depth, level.size(),
+                        (System.nanoTime() - levelStart) / 1e6);
+            }
+
+            depth++;
+        }
+
+        ArrayList<Configuration> pathList = found.get() == null ? new ArrayList<>()
+                : replayPath(start, found.get(), visited);
+
+        if (display) {
+            System.out.println("Threads: " + pool.getParallelism());
+            System.out.println("Total configs: " + totalConfigs.sum());
+            System.out.println("Unique configs: " + visited.size());
+        }
+
+        return pathList;
+    }
+
+    /**
+     * Rebuilds a path recorded as fingerprints by replaying it from the start.
+     *
+     * @param start starting configuration
+     * @param end configuration the path ends at
+     * @param visited fingerprints recorded with their predecessor fingerprints
+     * @return path from start to end
+     */
+    private static ArrayList<Configuration> replayPath(Configuration start, Configuration end,
+                                                       ConcurrentFingerprintSet visited) {
+
+        LinkedList<Long> chain = new LinkedList<>();
+
+        for (long fp = end.fingerprint(); fp != start.fingerprint(); fp = visited.getParent(fp)) {
+            chain.addFirst(fp);
+        }
+
+        ArrayList<Configuration> pathList = new ArrayList<>();
+        Configuration current = start;
+        pathList.add(current);
+
+        for (long fp : chain) {
+
+            for (Configuration neighbor : current.getNeighbors()) {
+
+                if (neighbor.fingerprint() == fp) {
+                    current = neighbor;
+                    break;
+                }
+            }
+
+            pathList.add(current);
+        }
+
+        return pathList;
+    }
+
+    /**
+     * Parallel BFS algorithm to find the shortest path, printing config counts.
+     *
+     * @param start starting configuration
+     * @return BFS shortest path to end
+     */
+    public Collection<Configuration> findPath(Configuration start) {
+        return findPath(start, true);
+    }
+}
@@ -0,0 +1,282 @@
+package puzzles.common.solver;
+
+import java.util.*;
+
+/**
+ * Compact predecessor store for single-threaded searches.
+ * Each configuration added gets a dense int ID in insertion order. Only its
+ * 64-bit fingerprint, its parent's ID and a one-byte move code are kept, in
+ * primitive arrays, so a visited state costs tens of bytes instead of a map
+ * entry plus a pinned parent object. The move code is the neighbor's index in
+ * its parent's neighbor order, and paths are rebuilt by replaying those
+ * indices forward from the start.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class PredecessorStore {
+
+    /** Returned for fingerprints that are not (or already) stored */
+    public static final int NO_STATE = -1;
+
+    /** Move code marking a neighbor index kept in the overflow map */
+    private static final int ESCAPE = 255;
+
+    /** Fingerprints of the open-addressed ID table */
+    private long[] keys;
+
+    /** IDs + 1 of the open-addressed ID table, 0 for empty slots */
+    private int[] slots;
+
+    /** Parent ID of each state */
+    private int[] parents;
+
+    /** Move code of each state */
+    private byte[] moves;
+
+    /** Neighbor indices of ESCAPE or more, by state ID */
+    private final Map<Integer, Integer> overflow = new HashMap<>();
+
+    /** Number of states stored */
+    private int size;
+
+    /**
+     * PredecessorStore constructor.
+     *
+     * @param initialCapacity expected number of states
+     */
+    public PredecessorStore(int initialCapacity) {
+
+        int capacity = Integer.highestOneBit(Math.max(16, initialCapacity) * 2 - 1) << 1;
+
+        this.keys = new long[capacity];
+        this.slots = new int[capacity];
+        this.parents = new int[Math.max(16, initialCapacity)];
+        this.moves = new byte[this.parents.length];
+    }
+
+    /**
+     * Gets the first probe slot of a fingerprint.
+     *
+     * @param fingerprint configuration fingerprint
+     * @param mask table capacity - 1
+     * @return slot index
+     */
+    private static int home(long fingerprint, int mask) {
+        long h = fingerprint * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Adds a state if its fingerprint is new.
+     *
+     * @param fingerprint configuration fingerprint
+     * @param parent parent state ID (NO_STATE for the start)
+     * @param move index of the state among its parent's neighbors
+     * @return new state ID, or NO_STATE if the fingerprint was already stored
+     */
+    public int add(long fingerprint, int parent, int move) {
+
+        int mask = this.keys.length - 1;
+        int index = home(fingerprint, mask);
+
+        while (this.slots[index] != 0) {  // linear probing
+
+            if (this.keys[index] == fingerprint) {
+                return NO_STATE;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        int id = this.size++;
+
+        this.keys[index] = fingerprint;
+        this.slots[index] = id + 1;
+
+        if (id == this.parents.length) {
+            this.parents = Arrays.copyOf(this.parents, id + (id >> 1));
+            this.moves = Arrays.copyOf(this.moves, this.parents.length);
+        }
+
+        this.parents[id] = parent;
+
+        if (move < ESCAPE) {
+            this.moves[id] = (byte) move;
+        } else {
+            this.moves[id] = (byte) ESCAPE;
+            this.overflow.put(id, move);
+            // configurations with 255 or more neighbors are rare enough to box
+        }
+
+        if (this.size * 2 > this.keys.length) {
+            rehash();
+        }
+
+        return id;
+    }
+
+    /**
+     * Doubles the ID table.
+     */
+    private void rehash() {
+
+        long[] oldKeys = this.keys;
+        int[] oldSlots = this.slots;
+
+        this.keys = new long[oldKeys.length * 2];
+        this.slots = new int[oldSlots.length * 2];
+
+        int mask = this.keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; ++i) {
+
+            if (oldSlots[i] != 0) {
+                int index = home(oldKeys[i], mask);
+
+                while (this.slots[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+
+                this.keys[index] = oldKeys[i];
+                this.slots[index] = oldSlots[i];
+            }
+        }
+    }
+
+    /**
+     * Finds the ID of a stored fingerprint.
+     *
+     * @param fingerprint configuration fingerprint
+     * @return state ID, or NO_STATE if absent
+     */
+    public int find(long fingerprint) {
+
+        int mask = this.keys.length - 1;
+
+        for (int index = home(fingerprint, mask); this.slots[index] != 0; index = (index + 1) & mask) {
+
+            if (this.keys[index] == fingerprint) {
+                return this.slots[index] - 1;
+            }
+        }
+
+        return NO_STATE;
+    }
+
+    /**
+     * Gets a state's parent.
+     *
+     * @param id state ID
+     * @return parent state ID (NO_STATE for the start)
+     */
+    public int getParent(int id) {
+        return this.parents[id];
+    }
+
+    /**
+     * Gets the index of a state among its parent's neighbors.
+     *
+     * @param id state ID
+     * @return neighbor index
+     */
+    public int getMove(int id) {
+        int move = this.moves[id] & 0xFF;
+        return move == ESCAPE ? this.overflow.get(id) : move;
+    }
+
+    /**
+     * Gets number of states stored.
+     *
+     * @return store size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets number of hash table slots, which doubles on every rehash.
+     *
+     * @return table capacity
+     */
+    public int capacity() {
+        return this.keys.length;
+    }
+
+    /**
+     * Gets the heap used by the store's arrays.
+     *
+     * @return approximate bytes in use
+     */
+    public long memoryBytes() {
+        return this.keys.length * (long) (Long.BYTES + Integer.BYTES)
+                + this.parents.length * (long) (Integer.BYTES + Byte.BYTES);
+    }
+
+    /**
+     * Rebuilds the path to a state by replaying move codes from the start.
+     *
+     * @param start configuration stored as the root
+     * @param id state ID the path ends at
+     * @return path from start to the state
+     */
+    public List<Configuration> pathTo(Configuration start, int id) {
+
+        int length = 0;
+
+        for (int state = id; this.parents[state] != NO_STATE; state = this.parents[state]) {
+            length++;
+        }
+
+        int[] route = new int[length];
+
+        for (int state = id, i = length - 1; i >= 0; state = this.parents[state], --i) {
+            route[i] = getMove(state);
+        }
+
+        List<Configuration> pathList = new ArrayList<>(length + 1);
+        Configuration current = start;
+        pathList.add(current);
+
+        for (int move : route) {
+            current = neighborAt(current, move);
+            pathList.add(current);
+        }
+
+        return pathList;
+    }
+
+    /**
+     * Builds one neighbor of a configuration by its index.
+     * Streaming configurations only build the requested neighbor.
+     *
+     * @param config configuration to move from
+     * @param move neighbor index
+     * @return neighbor configuration
+     */
+    private static Configuration neighborAt(Configuration config, int move) {
+
+        if (!(config instanceof StreamingConfiguration)) {
+            return new ArrayList<>(config.getNeighbors()).get(move);
+        }
+
+        Configuration[] picked = new Configuration[1];
+
+        ((StreamingConfiguration) config).forEachNeighbor(new NeighborVisitor() {
+
+            /** Index of the next neighbor offered */
+            private int index;
+
+            @Override
+            public boolean wants(long fingerprint) {
+                return this.index++ == move;
+            }
+
+            @Override
+            public void accept(Configuration neighbor) {
+                picked[0] = neighbor;
+            }
+        });
+
+        return picked[0];
+    }
+}
@@ -0,0 +1,164 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * BFS over ranked configurations with a paged byte table of depths.
+ * Each seen configuration's rank holds its BFS depth mod 255, plus one so
+ * 0 still means unseen, and frontiers are arrays of ranks, so no configuration
+ * objects or parent links outlive their level. Paths are rebuilt backward from
+ * the solution through neighbors one level shallower, which needs every move to
+ * be undoable by another move, as in sliding puzzles. Neighbors of a
+ * configuration are then at most one level away, so depth mod 255 is enough
+ * to tell the shallower ones apart.
+ *
+ * @param <C> configuration type the ranker understands
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class RankedSolver<C extends Configuration> {
+
+    /** Numbers configurations */
+    private final StateRanker<C> ranker;
+
+    /** Whether to keep expanding after a solution is found */
+    private boolean fullEnumeration;
+
+    /** Depth table of the last search */
+    private PagedByteTable depths;
+
+    /**
+     * RankedSolver constructor.
+     *
+     * @param ranker ranker numbering every reachable configuration
+     */
+    public RankedSolver(StateRanker<C> ranker) {
+        this.ranker = ranker;
+    }
+
+    /**
+     * Enables or disables enumerating every reachable configuration.
+     *
+     * @param fullEnumeration whether to keep expanding after a solution is found
+     */
+    public void setFullEnumeration(boolean fullEnumeration) {
+        this.fullEnumeration = fullEnumeration;
+    }
+
+    /**
+     * Gets the depth code stored for a BFS depth.
+     *
+     * @param depth BFS depth
+     * @return nonzero table byte
+     */
+    public static byte depthCode(int depth) {
+        return (byte) (depth % 255 + 1);
+    }
+
+    /**
+     * Gets the depth table of the last search.
+     * Each rank seen holds depthCode() of its BFS depth, and 0 if unseen.
+     *
+     * @return depth table (null before any search)
+     */
+    public PagedByteTable getDepths() {
+        return this.depths;
+    }
+
+    /**
+     * Ranked BFS algorithm to find the shortest path to a solution.
+     *
+     * @param start starting configuration
+     * @param display whether to print config counts and table use
+     * @return BFS shortest path to end
+     */
+    @SuppressWarnings("unchecked")
+    public List<Configuration> findPath(C start, boolean display) {
+
+        this.depths = new PagedByteTable(this.ranker.size());
+
+        long totalConfigs = 1;
+        long uniqueConfigs = 1;
+        long found = -1;
+        int foundDepth = -1;
+
+        long[] frontier = {this.ranker.rank(start)};
+        int frontierSize = 1;
+        this.depths.set(frontier[0], depthCode(0));
+
+        for (int depth = 0; frontierSize > 0 && (found == -1 || this.fullEnumeration); ++depth) {
+            // runs one BFS level per iteration
+
+            long[] next = new long[Math.max(16, frontierSize)];
+            int nextSize = 0;
+
+            for (int i = 0; i < frontierSize; ++i) {
+                C current = this.ranker.unrank(frontier[i]);
+
+                if (current.isSolution() && found == -1) {
+                    found = frontier[i];
+                    foundDepth = depth;
+
+                    if (!this.fullEnumeration) {
+                        break;
+                    }
+                }
+
+                for (Configuration neighbor : current.getNeighbors()) {
+                    totalConfigs++;
+
+                    long rank = this.ranker.rank((C) neighbor);
+
+                    if (this.depths.get(rank) == 0) {
+                        uniqueConfigs++;
+
+                        this.depths.set(rank, depthCode(depth + 1));
+
+                        if (nextSize == next.length) {
+                            next = Arrays.copyOf(next, nextSize + (nextSize >> 1));
+                        }
+
+                        next[nextSize++] = rank;
+                    }
+                }
+            }
+
+            frontier = next;
+            frontierSize = nextSize;
+        }
+
+        LinkedList<Configuration> pathList = new LinkedList<>();
+
+        if (found != -1) {  // walks back through neighbors one level shallower
+            C current = this.ranker.unrank(found);
+            pathList.addFirst(current);
+
+            for (int depth = foundDepth; depth > 0; --depth) {
+                byte previous = depthCode(depth - 1);
+
+                for (Configuration neighbor : current.getNeighbors()) {
+
+                    if (this.depths.get(this.ranker.rank((C) neighbor)) == previous) {
+                        current = (C) neighbor;
+                        break;
+                    }
+                }
+
+                pathList.addFirst(current);
+            }
+        }
+
+        if (display) {
+            System.out.println("Ranked states: " + this.ranker.size());
+            System.out.println("Table pages: " + this.depths.getPageCount() + "/" + this.depths.getDirectorySize());
+            System.out.println("Table bytes: " + this.depths.memoryBytes());
+            System.out.println("Total configs: " + totalConfigs);
+            System.out.println("Unique configs: " + uniqueConfigs);
+        }
+
+        return new ArrayList<>(pathList);
+    }
+}
@@ -0,0 +1,25 @@
+package puzzles.common.solver;
+
+import java.util.Collection;
+
+/**
+ * Interface for BFS configurations with a single known goal state, which can
+ * also be searched backwards from that goal.
+ */
+public interface ReversibleConfiguration extends Configuration {
+
+    /**
+     * Gets the goal configuration this configuration is trying to reach.
+     *
+     * @return goal configuration
+     */
+    Configuration getGoal();
+
+    /**
+     * Gets configuration predecessors, the configurations that have this
+     * configuration as a neighbor.
+     *
+     * @return configuration predecessors
+     */
+    Collection<Configuration> getPredecessors();
+}
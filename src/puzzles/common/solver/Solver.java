@@ -1,6 +1,7 @@
 package puzzles.common.solver;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * BFS common solver class.
@@ -9,67 +10,695 @@ import java.util.*;
  */
 public class Solver {
 
+    /** Approximate heap per predecessor map entry, not counting configurations */
+    private static final int MAP_ENTRY_BYTES = 48;
+
+    /** Approximate heap per queued configuration in a linked list */
+    private static final int LIST_NODE_BYTES = 24;
+
+    /** Whether to print hash collision diagnostics with the config counts */
+    private boolean hashDiagnostics = false;
+
+    /** Whether to test configurations for solutions when generated rather than dequeued */
+    private boolean earlyGoalTest = false;
+
+    /** Test for configurations proven to have no solution below them (null for none) */
+    private Predicate<Configuration> pruning = null;
+
+    /** Whether displayed solves also print expansion, frontier, timing and memory figures */
+    private boolean detailedStats = false;
+
+    /** Receive level progress of every search */
+    private final List<SolverListener> listeners = new ArrayList<>();
+
+    /** Puzzle file named in flight recorder events (null if not from a file) */
+    private String puzzleFile = null;
+
+    /** Longest a search may run in nanoseconds (0 for no limit) */
+    private long timeLimitNanos = 0;
+
+    /** Most configurations a search may expand (0 for no limit) */
+    private long expansionLimit = 0;
+
+    /** Most distinct configurations a search may keep (0 for no limit) */
+    private long stateLimit = 0;
+
+    /** Stops searches from another thread (null for none) */
+    private CancellationToken cancellation = null;
+
+    /**
+     * Enables or disables hash collision diagnostics.
+     * When enabled, displayed solves also report how the visited configurations
+     * spread over the hash table buckets.
+     *
+     * @param hashDiagnostics whether to print diagnostics
+     */
+    public void setHashDiagnostics(boolean hashDiagnostics) {
+        this.hashDiagnostics = hashDiagnostics;
+    }
+
+    /**
+     * Enables or disables goal testing at generation time.
+     * The search then stops as soon as a solution is generated instead of when
+     * it is dequeued, skipping the rest of the level before it. The path found
+     * is the same, since BFS dequeues configurations in the order it generates them.
+     *
+     * @param earlyGoalTest whether to test neighbors as they are generated
+     */
+    public void setEarlyGoalTest(boolean earlyGoalTest) {
+        this.earlyGoalTest = earlyGoalTest;
+    }
+
+    /**
+     * Sets a test for configurations that can never lead to a solution.
+     * Configurations are tested as they are dequeued, and pruned ones are never
+     * expanded, so the search skips everything below them. The path found is
+     * unchanged as long as the test never prunes a configuration with a
+     * solution below it.
+     *
+     * @param pruning dead configuration test (null to expand everything)
+     */
+    public void setPruning(Predicate<Configuration> pruning) {
+        this.pruning = pruning;
+    }
+
+    /**
+     * Enables or disables the detailed statistics printed by displayed solves.
+     *
+     * @param detailedStats whether to print every SolverStats figure
+     */
+    public void setDetailedStats(boolean detailedStats) {
+        this.detailedStats = detailedStats;
+    }
+
+    /**
+     * Subscribes to level progress of every search run by this solver.
+     *
+     * @param listener progress listener
+     */
+    public void addListener(SolverListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Sets the puzzle file named in the flight recorder events of every search.
+     *
+     * @param puzzleFile puzzle file searched (null if not from a file)
+     */
+    public void setPuzzleFile(String puzzleFile) {
+        this.puzzleFile = puzzleFile;
+    }
+
+    /**
+     * Sets the longest a search may run before it stops with BUDGET_EXCEEDED.
+     *
+     * @param millis time limit in milliseconds (0 for no limit)
+     */
+    public void setTimeLimit(long millis) {
+        this.timeLimitNanos = millis * 1_000_000;
+    }
+
+    /**
+     * Sets the most configurations a search may expand before it stops with BUDGET_EXCEEDED.
+     *
+     * @param expansionLimit expansion limit (0 for no limit)
+     */
+    public void setExpansionLimit(long expansionLimit) {
+        this.expansionLimit = expansionLimit;
+    }
+
+    /**
+     * Sets the most distinct configurations a search may keep before it stops with BUDGET_EXCEEDED.
+     * The limit is checked between expansions, so a search can pass it by the
+     * children of one configuration.
+     *
+     * @param stateLimit visited configuration limit (0 for no limit)
+     */
+    public void setStateLimit(long stateLimit) {
+        this.stateLimit = stateLimit;
+    }
+
+    /**
+     * Sets a token that stops searches with CANCELLED when cancelled.
+     *
+     * @param cancellation cancellation token (null for none)
+     */
+    public void setCancellation(CancellationToken cancellation) {
+        this.cancellation = cancellation;
+    }
+
+    /**
+     * Checks whether a search should stop before its next expansion.
+     *
+     * @param stats search statistics so far
+     * @param startTime System.nanoTime() when the search started
+     * @return why the search should stop (null to keep going)
+     */
+    private SolverResult.Status stopReason(SolverStats stats, long startTime) {
+
+        if (Thread.currentThread().isInterrupted() || (this.cancellation != null && this.cancellation.isCancelled())) {
+            return SolverResult.Status.CANCELLED;
+        }
+
+        if ((this.expansionLimit > 0 && stats.expanded >= this.expansionLimit)
+                || (this.stateLimit > 0 && stats.unique > this.stateLimit)
+                || (this.timeLimitNanos > 0 && System.nanoTime() - startTime >= this.timeLimitNanos)) {
+            return SolverResult.Status.BUDGET_EXCEEDED;
+        }
+
+        return null;
+    }
+
+    /**
+     * Records the start of a level and tells the listeners.
+     *
+     * @param stats search statistics
+     * @param width configurations in the level
+     * @param recorder flight recorder events of the search
+     */
+    private void startLevel(SolverStats stats, int width, SolverEvents.Recorder recorder) {
+
+        int depth = stats.startLevel(width);
+        recorder.level(depth, width, stats.unique);
+
+        for (SolverListener listener : this.listeners) {
+            listener.levelStarted(depth, width, stats);
+        }
+    }
+
     /**
      * Common BFS algorithm to find the shortest path between two configurations.
+     * Displayed solves print the config counts of the search.
      *
      * @param start starting configuration
+     * @param display whether to print config counts
      * @return BFS shortest path to end
      */
     public Collection<Configuration> findPath(Configuration start, boolean display) {
+
+        SolverResult result = solve(start);
+
+        if (display) {
+            SolverStats stats = result.getStats();
+
+            System.out.println("Total configs: " + stats.getGenerated());
+            System.out.println("Unique configs: " + stats.getUnique());
+
+            if (this.earlyGoalTest) {
+                System.out.println("Expansions saved: " + stats.getSavedExpansions());
+            }
+
+            if (this.pruning != null) {
+                System.out.println("Pruned configs: " + stats.getPruned());
+            }
+
+            if (result.getHashDiagnostics() != null) {
+                System.out.println(result.getHashDiagnostics());
+            }
+
+            if (result.getStatus() == SolverResult.Status.BUDGET_EXCEEDED) {
+                System.out.println("Search stopped: budget exceeded");
+            }
+
+            if (this.detailedStats) {
+                printDetails(stats);
+            }
+        }
+
+        return result.getPath();
+    }
+
+    /**
+     * Prints the statistics not covered by the config counts.
+     *
+     * @param stats search statistics
+     */
+    private static void printDetails(SolverStats stats) {
+        System.out.println("Expanded configs: " + stats.getExpanded());
+        System.out.println("Duplicate configs: " + stats.getDuplicates());
+        System.out.println("Peak frontier: " + stats.getPeakFrontier());
+        System.out.println("Levels: " + stats.getLevelWidths().length);
+        System.out.println("Search time: " + stats.getWallNanos() / 1_000_000 + " ms");
+        System.out.println("Configs per second: " + Math.round(stats.getNodesPerSecond()));
+        System.out.println("Retained bytes: " + stats.getRetainedBytes());
+    }
+
+    /**
+     * Common BFS algorithm to find the shortest path between two configurations.
+     * Streaming configurations are searched without collecting neighbors,
+     * unless hash diagnostics need the full visited map. A search that hits
+     * its time, expansion or state limit ends with BUDGET_EXCEEDED, and one
+     * cancelled through its token or interrupted ends with CANCELLED, both
+     * with an empty path. The search, its levels and its visited set resizes
+     * are flight recorder events.
+     *
+     * @param start starting configuration
+     * @return BFS shortest path to end with search statistics
+     */
+    public SolverResult solve(Configuration start) {
+
+        long startTime = System.nanoTime();
+        SolverEvents.Recorder recorder = new SolverEvents.Recorder(start, this.puzzleFile);
+
+        SolverResult result = start instanceof StreamingConfiguration && !this.hashDiagnostics
+                ? solveStreaming((StreamingConfiguration) start, recorder, startTime)
+                : solveClassic(start, recorder, startTime);
+
+        result.getStats().wallNanos = System.nanoTime() - startTime;
+        recorder.end(result);
+
+        return result;
+    }
+
+    /**
+     * BFS over configurations kept whole in a predecessor map.
+     * Resizes are reported where a default HashMap grows, at three quarters full.
+     *
+     * @param start starting configuration
+     * @param recorder flight recorder events of the search
+     * @param startTime System.nanoTime() when the search started
+     * @return BFS shortest path to end with search statistics
+     */
+    private SolverResult solveClassic(Configuration start, SolverEvents.Recorder recorder,
+                                      long startTime) {
+
         Queue<Configuration> q = new LinkedList<>();
         HashMap<Configuration, Configuration> predecessors = new HashMap<>();
 
-        int totalConfigs = 1;
-        int uniqueConfigs = 1;
-
+        SolverStats stats = new SolverStats();
         boolean found = false;
 
         q.add(start);
         predecessors.put(start, start);
 
         Configuration current = null;
+        int levelLeft = 0;
+        long capacity = 16;
+        SolverResult.Status stopped = null;
+
+        while (!found && !q.isEmpty()) {  // runs until queue is empty or the search is stopped
+            stopped = stopReason(stats, startTime);
+
+            if (stopped != null) {
+                break;
+            }
+
+            if (levelLeft == 0) {
+                levelLeft = q.size();
+                startLevel(stats, levelLeft, recorder);
+                // everything queued belongs to the next level once the last one is used up
+            }
 
-        while (!q.isEmpty()) {  // runs until queue is empty
             current = q.remove();
+            levelLeft--;
 
-            if (current.isSolution()) {
+            if ((!this.earlyGoalTest || current == start) && current.isSolution()) {
                 found = true;
                 break;
+                // with early goal testing only the start is left to test here
             }
 
+            if (this.pruning != null && this.pruning.test(current)) {
+                stats.pruned++;
+                continue;
+            }
+
+            stats.expanded++;
+
             for (Configuration neighbor : current.getNeighbors()) {  // loops through all neighbors
-                totalConfigs++;
+                stats.generated++;
 
                 if (!predecessors.containsKey(neighbor)) {
-                    uniqueConfigs++;
+                    stats.unique++;
 
                     predecessors.put(neighbor, current);
+
+                    if (this.earlyGoalTest && neighbor.isSolution()) {
+                        stats.savedExpansions = q.size();
+                        // everything still queued would have been expanded before this neighbor
+
+                        current = neighbor;
+                        found = true;
+                        break;
+                    }
+
                     q.add(neighbor);
                 }
             }
+
+            stats.peakFrontier = Math.max(stats.peakFrontier, q.size());
+
+            while (stats.unique > capacity * 3 / 4) {  // the map has doubled its table
+                recorder.resize(capacity, capacity * 2, stats.unique);
+                capacity *= 2;
+            }
         }
 
-        ArrayList<Configuration> pathList = new ArrayList<>();
+        stats.retainedBytes = stats.unique * MAP_ENTRY_BYTES + stats.peakFrontier * (long) LIST_NODE_BYTES;
+        LinkedList<Configuration> pathList = new LinkedList<>();
 
         if (found) {  // checks if a path to the end has been reached
 
             while (!current.equals(start)) {  // constructs path based on search algorithm results
-                pathList.add(0, current);
+                pathList.addFirst(current);
                 current = predecessors.get(current);
             }
 
-            pathList.add(0, start);
+            pathList.addFirst(start);
+        }
+
+        return new SolverResult(found ? SolverResult.Status.SOLVED
+                : stopped != null ? stopped : SolverResult.Status.NO_SOLUTION, new ArrayList<>(pathList), stats,
+                this.hashDiagnostics ? new HashDiagnostics(predecessors.keySet()) : null);
+    }
+
+    public Collection<Configuration> findPath(Configuration start) {
+        return findPath(start, true);
+    }
+
+    /**
+     * BFS over streaming configurations.
+     * Children are checked against a PredecessorStore before they are built,
+     * and seen configurations are kept only as fingerprints with parent IDs and
+     * move codes. Configurations are queued in ID order, so the ID of each
+     * dequeued configuration is simply its dequeue count.
+     *
+     * @param start starting configuration
+     * @param recorder flight recorder events of the search
+     * @param startTime System.nanoTime() when the search started
+     * @return BFS shortest path to end with search statistics
+     */
+    private SolverResult solveStreaming(StreamingConfiguration start, SolverEvents.Recorder recorder,
+                                        long startTime) {
+        Queue<Configuration> q = new ArrayDeque<>();
+        PredecessorStore visited = new PredecessorStore(1 << 12);
+
+        q.add(start);
+        visited.add(start.fingerprint(), PredecessorStore.NO_STATE, 0);
+
+        SolverStats stats = new SolverStats();
+        Expansion expansion = new Expansion(q, visited, this.earlyGoalTest, stats);
+        int found = start.isSolution() ? 0 : PredecessorStore.NO_STATE;
+        int levelLeft = 0;
+        int capacity = visited.capacity();
+        SolverResult.Status stopped = null;
+
+        for (int id = 0; found == PredecessorStore.NO_STATE && !q.isEmpty(); ++id) {
+            // runs until queue is empty or the search is stopped
+
+            stopped = stopReason(stats, startTime);
+
+            if (stopped != null) {
+                break;
+            }
+
+            if (levelLeft == 0) {
+                levelLeft = q.size();
+                startLevel(stats, levelLeft, recorder);
+            }
+
+            Configuration current = q.remove();
+            levelLeft--;
+
+            if (!this.earlyGoalTest && current.isSolution()) {
+                found = id;
+                break;
+            }
+
+            if (this.pruning != null && this.pruning.test(current)) {
+                stats.pruned++;
+                continue;
+                // still dequeued in ID order, just never expanded
+            }
+
+            stats.expanded++;
+
+            expansion.parent = id;
+            expansion.move = 0;
+            ((StreamingConfiguration) current).forEachNeighbor(expansion);
+
+            found = expansion.goal;
+            stats.peakFrontier = Math.max(stats.peakFrontier, q.size());
+
+            if (visited.capacity() != capacity) {  // the store rehashed while expanding
+                recorder.resize(capacity, visited.capacity(), visited.size());
+                capacity = visited.capacity();
+            }
+        }
+
+        stats.retainedBytes = visited.memoryBytes() + stats.peakFrontier * (long) Long.BYTES;
+
+        if (found == PredecessorStore.NO_STATE) {
+            return new SolverResult(stopped != null ? stopped : SolverResult.Status.NO_SOLUTION,
+                    new ArrayList<>(), stats, null);
+        }
+
+        return new SolverResult(visited.pathTo(start, found), stats, null);
+    }
+
+    /**
+     * Visitor queueing the unseen children of one configuration at a time.
+     */
+    private static final class Expansion implements NeighborVisitor {
+
+        /** BFS queue */
+        private final Queue<Configuration> q;
+
+        /** Configurations seen so far */
+        private final PredecessorStore visited;
+
+        /** Whether to test children for solutions as they are generated */
+        private final boolean earlyGoalTest;
+
+        /** ID of the configuration being expanded */
+        int parent;
+
+        /** Index of the next neighbor offered */
+        int move;
+
+        /** Search statistics */
+        private final SolverStats stats;
+
+        /** ID of the solution generated so far (NO_STATE if none) */
+        int goal = PredecessorStore.NO_STATE;
+
+        /** ID given to the last wanted neighbor */
+        private int pending;
+
+        /**
+         * Expansion constructor.
+         *
+         * @param q BFS queue
+         * @param visited configurations seen so far
+         * @param earlyGoalTest whether to test children as they are generated
+         * @param stats search statistics
+         */
+        Expansion(Queue<Configuration> q, PredecessorStore visited, boolean earlyGoalTest, SolverStats stats) {
+            this.q = q;
+            this.visited = visited;
+            this.earlyGoalTest = earlyGoalTest;
+            this.stats = stats;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean wants(long fingerprint) {
+
+            if (this.goal != PredecessorStore.NO_STATE) {
+                return false;
+                // a solution was already generated, the rest of the siblings are skipped
+            }
+
+            this.stats.generated++;
+            this.pending = this.visited.add(fingerprint, this.parent, this.move++);
+
+            if (this.pending == PredecessorStore.NO_STATE) {
+                return false;
+            }
+
+            this.stats.unique++;
+
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void accept(Configuration neighbor) {
+
+            if (this.earlyGoalTest && neighbor.isSolution()) {
+                this.goal = this.pending;
+                this.stats.savedExpansions = this.q.size();
+                return;
+            }
+
+            this.q.add(neighbor);
         }
+    }
+
+    /**
+     * Bidirectional BFS to find the shortest path between a configuration and its known goal.
+     * Grows one frontier from the start and one from the goal, expanding the smaller
+     * frontier a full level at a time, and stitches the two halves together where they meet.
+     *
+     * @param start starting configuration
+     * @param display whether to print config counts
+     * @return BFS shortest path to end
+     */
+    public Collection<Configuration> findPathBidirectional(ReversibleConfiguration start, boolean display) {
+
+        SolverResult result = solveBidirectional(start);
 
         if (display) {
-            System.out.println("Total configs: " + totalConfigs);
-            System.out.println("Unique configs: " + uniqueConfigs);
+            System.out.println("Total configs: " + result.getStats().getGenerated());
+            System.out.println("Unique configs: " + result.getStats().getUnique());
+
+            if (result.getStatus() == SolverResult.Status.BUDGET_EXCEEDED) {
+                System.out.println("Search stopped: budget exceeded");
+            }
+
+            if (this.detailedStats) {
+                printDetails(result.getStats());
+            }
         }
 
-        return pathList;
+        return result.getPath();
     }
 
-    public Collection<Configuration> findPath(Configuration start) {
-        return findPath(start, true);
+    /**
+     * Bidirectional BFS to find the shortest path between a configuration and its known goal.
+     * Levels are reported in the order they are expanded, from either side.
+     * Budgets and cancellation stop it the same way as solve(), and the search
+     * and its levels are flight recorder events.
+     *
+     * @param start starting configuration
+     * @return BFS shortest path to end with search statistics
+     */
+    public SolverResult solveBidirectional(ReversibleConfiguration start) {
+
+        long startTime = System.nanoTime();
+        SolverEvents.Recorder recorder = new SolverEvents.Recorder(start, this.puzzleFile);
+
+        Configuration goal = start.isSolution() ? start : start.getGoal();
+        // a start that is already solved is its own goal
+
+        HashMap<Configuration, Configuration> forward = new HashMap<>();
+        HashMap<Configuration, Configuration> backward = new HashMap<>();
+        // forward maps toward the start, backward maps toward the goal
+
+        HashMap<Configuration, Integer> forwardDepths = new HashMap<>();
+        HashMap<Configuration, Integer> backwardDepths = new HashMap<>();
+
+        List<Configuration> forwardFrontier = new ArrayList<>();
+        List<Configuration> backwardFrontier = new ArrayList<>();
+
+        SolverStats stats = new SolverStats();
+        stats.generated = 2;
+        stats.unique = 2;
+        stats.peakFrontier = 2;
+
+        forward.put(start, start);
+        forwardDepths.put(start, 0);
+        forwardFrontier.add(start);
+
+        backward.put(goal, goal);
+        backwardDepths.put(goal, 0);
+        backwardFrontier.add(goal);
+
+        Configuration meeting = start.equals(goal) ? start : null;
+        int bestLength = Integer.MAX_VALUE;
+        SolverResult.Status stopped = null;
+
+        while (meeting == null && stopped == null && !forwardFrontier.isEmpty() && !backwardFrontier.isEmpty()) {
+            // runs until the frontiers meet or one side is exhausted
+
+            boolean expandForward = forwardFrontier.size() <= backwardFrontier.size();
+
+            HashMap<Configuration, Configuration> own = expandForward ? forward : backward;
+            HashMap<Configuration, Integer> ownDepths = expandForward ? forwardDepths : backwardDepths;
+            HashMap<Configuration, Integer> otherDepths = expandForward ? backwardDepths : forwardDepths;
+            List<Configuration> frontier = expandForward ? forwardFrontier : backwardFrontier;
+            List<Configuration> nextFrontier = new ArrayList<>();
+
+            startLevel(stats, frontier.size(), recorder);
+
+            for (Configuration current : frontier) {  // expands one full level
+                stopped = stopReason(stats, startTime);
+
+                if (stopped != null) {
+                    meeting = null;
+                    break;
+                    // a meeting from a half-expanded level may not be the shortest, so it is dropped
+                }
+
+                int depth = ownDepths.get(current) + 1;
+                stats.expanded++;
+
+                Collection<Configuration> next = expandForward ? current.getNeighbors()
+                        : ((ReversibleConfiguration) current).getPredecessors();
+
+                for (Configuration neighbor : next) {
+                    stats.generated++;
+
+                    if (!own.containsKey(neighbor)) {
+                        stats.unique++;
+
+                        own.put(neighbor, current);
+                        ownDepths.put(neighbor, depth);
+                        nextFrontier.add(neighbor);
+
+                        Integer otherDepth = otherDepths.get(neighbor);
+
+                        if (otherDepth != null && depth + otherDepth < bestLength) {
+                            bestLength = depth + otherDepth;
+                            meeting = neighbor;
+                            // keeps the shortest meeting found in this level
+                        }
+                    }
+                }
+            }
+
+            if (expandForward) {
+                forwardFrontier = nextFrontier;
+            } else {
+                backwardFrontier = nextFrontier;
+            }
+
+            stats.peakFrontier = Math.max(stats.peakFrontier, forwardFrontier.size() + backwardFrontier.size());
+        }
+
+        stats.retainedBytes = stats.unique * 2L * MAP_ENTRY_BYTES + stats.peakFrontier * (long) Long.BYTES;
+        // each configuration has a predecessor and a depth entry
+
+        LinkedList<Configuration> pathList = new LinkedList<>();
+
+        if (meeting != null) {  // stitches both halves of the path together
+
+            Configuration current = meeting;
+
+            while (!current.equals(start)) {
+                pathList.addFirst(current);
+                current = forward.get(current);
+            }
+
+            pathList.addFirst(start);
+            current = meeting;
+
+            while (!current.equals(goal)) {
+                current = backward.get(current);
+                pathList.addLast(current);
+            }
+        }
+
+        stats.wallNanos = System.nanoTime() - startTime;
+
+        SolverResult result = new SolverResult(meeting != null ? SolverResult.Status.SOLVED
+                : stopped != null ? stopped : SolverResult.Status.NO_SOLUTION, new ArrayList<>(pathList), stats, null);
+        recorder.end(result);
+
+        return result;
     }
 }
\ No newline at end of file
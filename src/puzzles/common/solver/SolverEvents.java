@@ -0,0 +1,252 @@
+package puzzles.common.solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder events for search phases.
+ * Nothing is recorded unless a flight recording is running, for example one
+ * started with -XX:StartFlightRecording. Until the recorder is started the
+ * event classes are never even loaded, since loading them the first time
+ * takes a few hundred milliseconds. Every event names the configuration
+ * class and puzzle file, so level blow-ups can be lined up with GC and
+ * allocation events.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+final class SolverEvents {
+
+    /**
+     * SolverEvents constructor, never called.
+     */
+    private SolverEvents() {
+    }
+
+    /**
+     * One whole search, from start to path.
+     */
+    @Name("puzzles.Solve")
+    @Label("Solve")
+    @Category({"Puzzles", "Solver"})
+    @Description("One search from a starting configuration")
+    static final class Solve extends Event {
+
+        /** Class of the starting configuration */
+        @Label("Configuration Class")
+        String configurationClass;
+
+        /** Puzzle file searched (null if not from a file) */
+        @Label("Puzzle File")
+        String puzzleFile;
+
+        /** How the search ended */
+        @Label("Status")
+        String status;
+
+        /** Configurations on the path found (0 if none) */
+        @Label("Path Length")
+        int pathLength;
+
+        /** Configurations expanded */
+        @Label("Expanded")
+        long expanded;
+
+        /** Distinct configurations seen */
+        @Label("Unique")
+        long unique;
+
+        /** Estimated heap held by the visited set and queue */
+        @Label("Retained")
+        @DataAmount
+        long retainedBytes;
+    }
+
+    /**
+     * One BFS level, from its first dequeue to the next level's.
+     */
+    @Name("puzzles.SolverLevel")
+    @Label("Solver Level")
+    @Category({"Puzzles", "Solver"})
+    @Description("One BFS level of a search")
+    static final class Level extends Event {
+
+        /** Class of the starting configuration */
+        @Label("Configuration Class")
+        String configurationClass;
+
+        /** Puzzle file searched (null if not from a file) */
+        @Label("Puzzle File")
+        String puzzleFile;
+
+        /** Level depth */
+        @Label("Depth")
+        int depth;
+
+        /** Configurations in the level */
+        @Label("Frontier Size")
+        int frontierSize;
+
+        /** Distinct configurations seen when the level started */
+        @Label("Unique")
+        long unique;
+    }
+
+    /**
+     * Growth of a visited set's table.
+     */
+    @Name("puzzles.VisitedResize")
+    @Label("Visited Set Resize")
+    @Category({"Puzzles", "Solver"})
+    @Description("Visited set table grown to fit more configurations")
+    static final class Resize extends Event {
+
+        /** Class of the starting configuration */
+        @Label("Configuration Class")
+        String configurationClass;
+
+        /** Puzzle file searched (null if not from a file) */
+        @Label("Puzzle File")
+        String puzzleFile;
+
+        /** Table slots before growing */
+        @Label("Old Capacity")
+        long oldCapacity;
+
+        /** Table slots after growing */
+        @Label("New Capacity")
+        long newCapacity;
+
+        /** Configurations stored */
+        @Label("Size")
+        long size;
+    }
+
+    /**
+     * Emits the events of one search.
+     */
+    static final class Recorder {
+
+        /** Class of the starting configuration */
+        private final String configurationClass;
+
+        /** Puzzle file searched (null if not from a file) */
+        private final String puzzleFile;
+
+        /** Event timing the whole search (null if the recorder was not started) */
+        private final Solve solve;
+
+        /** Event timing the current level (null before the first) */
+        private Level level;
+
+        /**
+         * Recorder constructor, starting the search event.
+         * Searches started before the flight recorder record nothing.
+         *
+         * @param start starting configuration
+         * @param puzzleFile puzzle file searched (null if not from a file)
+         */
+        Recorder(Configuration start, String puzzleFile) {
+            this.configurationClass = start.getClass().getName();
+            this.puzzleFile = puzzleFile;
+            this.solve = FlightRecorder.isInitialized() ? new Solve() : null;
+
+            if (this.solve != null) {
+                this.solve.begin();
+            }
+        }
+
+        /**
+         * Ends the current level and starts the next.
+         *
+         * @param depth depth of the new level
+         * @param width configurations in the new level
+         * @param unique distinct configurations seen so far
+         */
+        void level(int depth, int width, long unique) {
+
+            if (this.solve == null) {
+                return;
+            }
+
+            commitLevel();
+
+            this.level = new Level();
+
+            if (this.level.isEnabled()) {
+                this.level.configurationClass = this.configurationClass;
+                this.level.puzzleFile = this.puzzleFile;
+                this.level.depth = depth;
+                this.level.frontierSize = width;
+                this.level.unique = unique;
+                this.level.begin();
+            }
+        }
+
+        /**
+         * Records a visited set growing.
+         *
+         * @param oldCapacity table slots before growing
+         * @param newCapacity table slots after growing
+         * @param size configurations stored
+         */
+        void resize(long oldCapacity, long newCapacity, long size) {
+
+            if (this.solve == null) {
+                return;
+            }
+
+            Resize resize = new Resize();
+
+            if (resize.shouldCommit()) {
+                resize.configurationClass = this.configurationClass;
+                resize.puzzleFile = this.puzzleFile;
+                resize.oldCapacity = oldCapacity;
+                resize.newCapacity = newCapacity;
+                resize.size = size;
+                resize.commit();
+            }
+        }
+
+        /**
+         * Ends the last level and the search.
+         *
+         * @param result search result
+         */
+        void end(SolverResult result) {
+
+            if (this.solve == null) {
+                return;
+            }
+
+            commitLevel();
+
+            if (this.solve.shouldCommit()) {
+                this.solve.configurationClass = this.configurationClass;
+                this.solve.puzzleFile = this.puzzleFile;
+                this.solve.status = result.getStatus().name();
+                this.solve.pathLength = result.getPath().size();
+                this.solve.expanded = result.getStats().getExpanded();
+                this.solve.unique = result.getStats().getUnique();
+                this.solve.retainedBytes = result.getStats().getRetainedBytes();
+                this.solve.commit();
+            }
+        }
+
+        /**
+         * Commits the current level event, if any.
+         */
+        private void commitLevel() {
+
+            if (this.level != null && this.level.shouldCommit()) {
+                this.level.commit();
+            }
+
+            this.level = null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package puzzles.common.solver;
+
+/**
+ * Callback receiving search progress one BFS level at a time.
+ * Searches run on the caller's thread, so a listener of a background search
+ * is called on that background thread.
+ */
+@FunctionalInterface
+public interface SolverListener {
+
+    /**
+     * Receives the start of a BFS level.
+     *
+     * @param depth level depth (the start is depth 0)
+     * @param width configurations in the level
+     * @param stats search statistics so far
+     */
+    void levelStarted(int depth, int width, SolverStats stats);
+}
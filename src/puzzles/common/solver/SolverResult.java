@@ -0,0 +1,117 @@
+package puzzles.common.solver;
+
+import java.util.List;
+
+/**
+ * Path found by a search along with the search's statistics.
+ * The status tells an unsolvable puzzle apart from a search that was stopped
+ * before it could finish, both of which leave the path empty.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class SolverResult {
+
+    /**
+     * How a search ended.
+     */
+    public enum Status {
+
+        /** A shortest path to a solution was found */
+        SOLVED,
+
+        /** A path was found that may be longer than needed or stop short of a solution */
+        APPROXIMATE,
+
+        /** Every reachable configuration was searched without finding a solution */
+        NO_SOLUTION,
+
+        /** The search hit a time, expansion or state limit first */
+        BUDGET_EXCEEDED,
+
+        /** The search was cancelled or its thread interrupted first */
+        CANCELLED
+    }
+
+    /** How the search ended */
+    private final Status status;
+
+    /** Shortest path from start to a solution (empty if none) */
+    private final List<Configuration> path;
+
+    /** Search statistics */
+    private final SolverStats stats;
+
+    /** Visited set hash distribution (null unless diagnostics were enabled) */
+    private final HashDiagnostics hashDiagnostics;
+
+    /**
+     * SolverResult constructor for a search that ran to completion.
+     *
+     * @param path shortest path from start to a solution (empty if none)
+     * @param stats search statistics
+     * @param hashDiagnostics visited set hash distribution (null if not gathered)
+     */
+    public SolverResult(List<Configuration> path, SolverStats stats, HashDiagnostics hashDiagnostics) {
+        this(path.isEmpty() ? Status.NO_SOLUTION : Status.SOLVED, path, stats, hashDiagnostics);
+    }
+
+    /**
+     * SolverResult constructor.
+     *
+     * @param status how the search ended
+     * @param path shortest path from start to a solution (empty unless solved)
+     * @param stats search statistics
+     * @param hashDiagnostics visited set hash distribution (null if not gathered)
+     */
+    public SolverResult(Status status, List<Configuration> path, SolverStats stats, HashDiagnostics hashDiagnostics) {
+        this.status = status;
+        this.path = path;
+        this.stats = stats;
+        this.hashDiagnostics = hashDiagnostics;
+    }
+
+    /**
+     * Gets the path found.
+     *
+     * @return shortest path from start to a solution (empty if none)
+     */
+    public List<Configuration> getPath() {
+        return this.path;
+    }
+
+    /**
+     * Gets how the search ended.
+     *
+     * @return search status
+     */
+    public Status getStatus() {
+        return this.status;
+    }
+
+    /**
+     * Was a shortest path to a solution found?
+     *
+     * @return if the search ended with SOLVED
+     */
+    public boolean isSolved() {
+        return this.status == Status.SOLVED;
+    }
+
+    /**
+     * Gets the search statistics.
+     *
+     * @return search statistics
+     */
+    public SolverStats getStats() {
+        return this.stats;
+    }
+
+    /**
+     * Gets the visited set hash distribution.
+     *
+     * @return hash diagnostics (null unless enabled on the solver)
+     */
+    public HashDiagnostics getHashDiagnostics() {
+        return this.hashDiagnostics;
+    }
+}
@@ -0,0 +1,160 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+
+/**
+ * Counters gathered by a search.
+ * Solvers in this package update the fields as they go, so listeners
+ * receiving level events see the counts so far.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class SolverStats {
+
+    /** Configurations whose neighbors were generated */
+    long expanded;
+
+    /** Configurations generated, counting the start and repeats */
+    long generated = 1;
+
+    /** Distinct configurations seen */
+    long unique = 1;
+
+    /** Configurations dequeued but pruned instead of expanded */
+    long pruned;
+
+    /** Queued configurations left unexpanded by stopping at generation time */
+    long savedExpansions;
+
+    /** Most configurations queued at once */
+    int peakFrontier = 1;
+
+    /** Width of each level started, by depth */
+    private int[] levelWidths = new int[16];
+
+    /** Levels started */
+    private int levels;
+
+    /** Search time in nanoseconds */
+    long wallNanos;
+
+    /** Estimated heap held by the visited set and queue, not counting configurations */
+    long retainedBytes;
+
+    /**
+     * Records the start of the next level.
+     *
+     * @param width configurations in the level
+     * @return depth of the level
+     */
+    int startLevel(int width) {
+
+        if (this.levels == this.levelWidths.length) {
+            this.levelWidths = Arrays.copyOf(this.levelWidths, this.levels << 1);
+        }
+
+        this.levelWidths[this.levels] = width;
+        this.peakFrontier = Math.max(this.peakFrontier, width);
+
+        return this.levels++;
+    }
+
+    /**
+     * Gets number of configurations expanded.
+     *
+     * @return configurations whose neighbors were generated
+     */
+    public long getExpanded() {
+        return this.expanded;
+    }
+
+    /**
+     * Gets number of configurations generated.
+     *
+     * @return configurations generated, counting the start and repeats
+     */
+    public long getGenerated() {
+        return this.generated;
+    }
+
+    /**
+     * Gets number of distinct configurations seen.
+     *
+     * @return unique configurations
+     */
+    public long getUnique() {
+        return this.unique;
+    }
+
+    /**
+     * Gets number of generated configurations that were already seen.
+     *
+     * @return duplicate configurations
+     */
+    public long getDuplicates() {
+        return this.generated - this.unique;
+    }
+
+    /**
+     * Gets number of configurations pruned.
+     *
+     * @return configurations dequeued but never expanded
+     */
+    public long getPruned() {
+        return this.pruned;
+    }
+
+    /**
+     * Gets number of expansions skipped by goal testing at generation time.
+     *
+     * @return queued configurations left unexpanded
+     */
+    public long getSavedExpansions() {
+        return this.savedExpansions;
+    }
+
+    /**
+     * Gets the largest number of configurations queued at once.
+     *
+     * @return peak frontier size
+     */
+    public int getPeakFrontier() {
+        return this.peakFrontier;
+    }
+
+    /**
+     * Gets the width of each level started.
+     *
+     * @return level widths by depth
+     */
+    public int[] getLevelWidths() {
+        return Arrays.copyOf(this.levelWidths, this.levels);
+    }
+
+    /**
+     * Gets search time.
+     *
+     * @return wall clock nanoseconds
+     */
+    public long getWallNanos() {
+        return this.wallNanos;
+    }
+
+    /**
+     * Gets expansion throughput.
+     *
+     * @return configurations expanded per second (0 before the search ends)
+     */
+    public double getNodesPerSecond() {
+        return this.wallNanos == 0 ? 0 : this.expanded * 1e9 / this.wallNanos;
+    }
+
+    /**
+     * Gets an estimate of the heap the search held on to.
+     *
+     * @return approximate bytes in the visited set and queue, not counting configurations
+     */
+    public long getRetainedBytes() {
+        return this.retainedBytes;
+    }
+}
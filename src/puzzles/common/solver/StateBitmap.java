@@ -0,0 +1,242 @@
+package puzzles.common.solver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Visited set with one bit per ranked state.
+ * Bits live either in a long array or in a memory-mapped file, mapped in
+ * windows on first touch. The file is created sparse, so pages no bit was set
+ * in are left as holes on file systems that support them. File systems
+ * without sparse files (FAT, exFAT) allocate every window mapped in full, so
+ * enough free space for the whole bitmap is required up front. The file is
+ * deleted on close, or at exit where a platform keeps mapped files from
+ * being deleted (Windows), since mappings are only released once collected.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class StateBitmap implements Closeable {
+
+    /** Bytes per mapped window */
+    private static final long WINDOW_BYTES = 1L << 28;
+
+    /** Number of bits */
+    private final long bits;
+
+    /** In-memory bits (null when file-backed) */
+    private final long[] words;
+
+    /** Backing file (null when in memory) */
+    private final Path file;
+
+    /** Backing file channel (null when in memory) */
+    private final FileChannel channel;
+
+    /** Mapped windows, mapped on first touch */
+    private final MappedByteBuffer[] windows;
+
+    /** Number of bits set */
+    private long count;
+
+    /**
+     * StateBitmap constructor for an in-memory bitmap.
+     *
+     * @param bits number of bits
+     */
+    public StateBitmap(long bits) {
+
+        if (!fitsInHeap(bits)) {
+            throw new IllegalArgumentException("Too many bits for an in-memory bitmap: " + bits);
+        }
+
+        this.bits = bits;
+        this.words = new long[(int) ((bits + 63) >>> 6)];
+        this.file = null;
+        this.channel = null;
+        this.windows = null;
+    }
+
+    /**
+     * Can an in-memory bitmap of a size be allocated?
+     * The bits must fit in one long array and take at most half the maximum
+     * heap, leaving room for the frontiers.
+     *
+     * @param bits number of bits
+     * @return if the in-memory constructor can hold the bits
+     */
+    public static boolean fitsInHeap(long bits) {
+        long words = (bits + 63) >>> 6;
+        return words <= Integer.MAX_VALUE - 8 && words * Long.BYTES <= Runtime.getRuntime().maxMemory() / 2;
+    }
+
+    /**
+     * StateBitmap constructor for a file-backed bitmap.
+     *
+     * @param bits number of bits
+     * @param directory directory to create the bitmap file in
+     * @throws IOException if the file cannot be created or the directory lacks space for it
+     */
+    public StateBitmap(long bits, Path directory) throws IOException {
+
+        long bytes = (bits + 7) >>> 3;
+        long usable = Files.getFileStore(Files.createDirectories(directory)).getUsableSpace();
+
+        if (usable < bytes) {  // a full file system faults on a mapped write instead of failing cleanly
+            throw new IOException("Bitmap needs " + bytes + " bytes, only " + usable + " free in " + directory);
+        }
+
+        Path created;
+        FileChannel opened = null;
+
+        do {  // retries the rare name already taken
+            created = directory.resolve("visited" + ThreadLocalRandom.current().nextLong(Long.MAX_VALUE) + ".bits");
+
+            try {
+                opened = FileChannel.open(created, StandardOpenOption.CREATE_NEW, StandardOpenOption.SPARSE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+                // SPARSE only takes effect on a file the channel creates, and only matters on NTFS
+            } catch (FileAlreadyExistsException faee) {
+                // picks another name
+            }
+        } while (opened == null);
+
+        this.bits = bits;
+        this.words = null;
+        this.file = created;
+        this.channel = opened;
+
+        this.windows = new MappedByteBuffer[(int) ((bytes + WINDOW_BYTES - 1) / WINDOW_BYTES)];
+    }
+
+    /**
+     * Gets the window holding a byte of the file, mapping it if needed.
+     *
+     * @param window window index
+     * @return mapped window
+     * @throws IOException if the window cannot be mapped
+     */
+    private MappedByteBuffer window(int window) throws IOException {
+
+        if (this.windows[window] == null) {
+            long start = window * WINDOW_BYTES;
+            long length = Math.min(WINDOW_BYTES, ((this.bits + 7) >>> 3) - start);
+
+            this.windows[window] = this.channel.map(FileChannel.MapMode.READ_WRITE, start, length);
+            // mapping past the end grows the file, as holes where sparse files are supported
+        }
+
+        return this.windows[window];
+    }
+
+    /**
+     * Sets a bit if it is clear.
+     *
+     * @param index bit index
+     * @return whether the bit was clear
+     * @throws IOException if a file window cannot be mapped
+     */
+    public boolean add(long index) throws IOException {
+
+        if (this.words != null) {
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+
+            if ((this.words[word] & mask) != 0) {
+                return false;
+            }
+
+            this.words[word] |= mask;
+
+        } else {
+            long offset = index >>> 3;
+            MappedByteBuffer window = window((int) (offset / WINDOW_BYTES));
+
+            int at = (int) (offset % WINDOW_BYTES);
+            int mask = 1 << (index & 7);
+            byte value = window.get(at);
+
+            if ((value & mask) != 0) {
+                return false;
+            }
+
+            window.put(at, (byte) (value | mask));
+        }
+
+        this.count++;
+        return true;
+    }
+
+    /**
+     * Is a bit set?
+     *
+     * @param index bit index
+     * @return if the bit is set
+     * @throws IOException if a file window cannot be mapped
+     */
+    public boolean contains(long index) throws IOException {
+
+        if (this.words != null) {
+            return (this.words[(int) (index >>> 6)] & (1L << index)) != 0;
+        }
+
+        long offset = index >>> 3;
+        return (window((int) (offset / WINDOW_BYTES)).get((int) (offset % WINDOW_BYTES)) & (1 << (index & 7))) != 0;
+    }
+
+    /**
+     * Gets number of bits set.
+     *
+     * @return set bit count
+     */
+    public long count() {
+        return this.count;
+    }
+
+    /**
+     * Gets number of bits.
+     *
+     * @return bitmap size in bits
+     */
+    public long size() {
+        return this.bits;
+    }
+
+    /**
+     * Gets the bytes the bits take, in the heap or the file.
+     *
+     * @return bitmap bytes
+     */
+    public long memoryBytes() {
+        return this.words != null ? this.words.length * (long) Long.BYTES : (this.bits + 7) >>> 3;
+    }
+
+    /**
+     * Closes and deletes the backing file, if any.
+     * The windows are dropped first so their mappings can be collected, and
+     * a file still mapped where that blocks deletion is deleted at exit.
+     *
+     * @throws IOException if the channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+
+        if (this.channel != null) {
+            Arrays.fill(this.windows, null);
+            this.channel.close();
+
+            try {
+                Files.deleteIfExists(this.file);
+            } catch (IOException ioe) {
+                this.file.toFile().deleteOnExit();
+            }
+        }
+    }
+}
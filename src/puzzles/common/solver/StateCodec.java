@@ -0,0 +1,36 @@
+package puzzles.common.solver;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Interface for packing configurations into fixed-size byte records.
+ * Two configurations must encode to the same bytes exactly when they are
+ * equal, since disk-backed searches detect duplicates by comparing records.
+ *
+ * @param <C> configuration type the codec understands
+ */
+public interface StateCodec<C extends Configuration> {
+
+    /**
+     * Gets the encoded size of every configuration.
+     *
+     * @return record size in bytes
+     */
+    int stateSize();
+
+    /**
+     * Writes a configuration at the buffer's position.
+     *
+     * @param config configuration to encode
+     * @param buffer buffer receiving exactly stateSize() bytes
+     */
+    void encode(C config, ByteBuffer buffer);
+
+    /**
+     * Reads a configuration from the buffer's position.
+     *
+     * @param buffer buffer holding at least stateSize() bytes
+     * @return decoded configuration
+     */
+    C decode(ByteBuffer buffer);
+}
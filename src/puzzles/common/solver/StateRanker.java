@@ -0,0 +1,46 @@
+package puzzles.common.solver;
+
+/**
+ * Interface for numbering configurations densely.
+ * Every configuration the ranker covers gets its own index below size(), so
+ * a visited set over them can be a plain bitmap with one bit per index.
+ *
+ * @param <C> configuration type the ranker understands
+ */
+public interface StateRanker<C extends Configuration> {
+
+    /**
+     * Gets the number of indices in use.
+     *
+     * @return one more than the largest rank
+     */
+    long size();
+
+    /**
+     * Checks if a configuration is one of the ranked ones.
+     * Configurations reached by legal moves from a ranked one always are, but
+     * ones built some other way, like undone moves, may not be.
+     *
+     * @param config configuration to check
+     * @return whether the configuration has its own rank
+     */
+    default boolean covers(C config) {
+        return true;
+    }
+
+    /**
+     * Numbers a configuration.
+     *
+     * @param config configuration to rank
+     * @return index in [0, size())
+     */
+    long rank(C config);
+
+    /**
+     * Rebuilds the configuration numbered by an index.
+     *
+     * @param rank index in [0, size())
+     * @return ranked configuration
+     */
+    C unrank(long rank);
+}
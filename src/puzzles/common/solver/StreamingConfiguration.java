@@ -0,0 +1,17 @@
+package puzzles.common.solver;
+
+/**
+ * Interface for BFS configurations that can push their neighbors straight to
+ * a search instead of collecting them first.
+ */
+public interface StreamingConfiguration extends Configuration {
+
+    /**
+     * Passes every neighbor to a visitor, in getNeighbors() order.
+     * Each neighbor's fingerprint is offered to visitor.wants before the
+     * neighbor is built, and only wanted neighbors are built and accepted.
+     *
+     * @param visitor neighbor callback
+     */
+    void forEachNeighbor(NeighborVisitor visitor);
+}
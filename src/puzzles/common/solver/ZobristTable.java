@@ -0,0 +1,79 @@
+package puzzles.common.solver;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Zobrist hashing table.
+ * Holds one random 64-bit key per (cell, piece) pair so that a board hash is the
+ * XOR of the keys of its occupied cells and can be updated incrementally.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class ZobristTable {
+
+    /** Tables already generated, keyed by board shape */
+    private static final Map<String, ZobristTable> TABLES = new ConcurrentHashMap<>();
+
+    /** Number of distinct pieces per cell */
+    private final int numPieces;
+
+    /** Random keys indexed by cell * numPieces + piece */
+    private final long[] keys;
+
+    /**
+     * ZobristTable constructor.
+     * Keys are seeded from the board shape so equal boards always get equal tables.
+     *
+     * @param numRows board row count
+     * @param numCols board column count
+     * @param numPieces number of distinct pieces per cell
+     */
+    public ZobristTable(int numRows, int numCols, int numPieces) {
+
+        this.numPieces = numPieces;
+        this.keys = new long[numRows * numCols * numPieces];
+
+        SplittableRandom random = new SplittableRandom(
+                0x9E3779B97F4A7C15L * (31L * (31L * numRows + numCols) + numPieces));
+
+        for (int i = 0; i < this.keys.length; ++i) {
+            this.keys[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Gets the shared table for a board shape.
+     *
+     * @param numRows board row count
+     * @param numCols board column count
+     * @param numPieces number of distinct pieces per cell
+     * @return board table
+     */
+    public static ZobristTable forBoard(int numRows, int numCols, int numPieces) {
+        return TABLES.computeIfAbsent(numRows + "x" + numCols + "x" + numPieces,
+                shape -> new ZobristTable(numRows, numCols, numPieces));
+    }
+
+    /**
+     * Gets the key for a piece on a cell.
+     *
+     * @param cell flattened cell index (row * numCols + col)
+     * @param piece piece index
+     * @return random key
+     */
+    public long key(int cell, int piece) {
+        return this.keys[cell * this.numPieces + piece];
+    }
+
+    /**
+     * Folds a 64-bit Zobrist hash into a Java hashcode.
+     *
+     * @param hash 64-bit hash
+     * @return hashcode
+     */
+    public static int fold(long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
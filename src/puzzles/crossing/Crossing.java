@@ -1,9 +1,11 @@
 package puzzles.crossing;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.ReversibleConfiguration;
 import puzzles.common.solver.Solver;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Crossing puzzle main class.
@@ -21,21 +23,28 @@ public class Crossing {
 
         if (args.length < 2) {  // checks for incorrect arguments
 
-            System.out.println(("Usage: java Crossing pups wolves"));
+            System.out.println(("Usage: java Crossing pups wolves [-bidirectional]"));
 
         } else {
 
             Solver puzzleSolver = new Solver();
             // creates Solver instance
 
-            Configuration start = new CrossingConfiguration(
+            ReversibleConfiguration start = new CrossingConfiguration(
                     Integer.parseInt(args[0]), Integer.parseInt(args[1]));
             // initializes start configuration
 
             System.out.println("Pups: " + args[0] + ", Wolves: " + args[1]);
 
-            ArrayList<Configuration> path = (ArrayList<Configuration>) puzzleSolver.findPath(start);
-            // uses BFS Solver class to solve puzzle
+            ArrayList<Configuration> path;
+
+            if (Arrays.asList(args).contains("-bidirectional")) {
+                path = (ArrayList<Configuration>) puzzleSolver.findPathBidirectional(start, true);
+                // searches from both ends toward the middle
+            } else {
+                path = (ArrayList<Configuration>) puzzleSolver.findPath(start);
+                // uses BFS Solver class to solve puzzle
+            }
 
             if (path.size() > 0) {
 
@@ -1,6 +1,7 @@
 package puzzles.crossing;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.ReversibleConfiguration;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -10,7 +11,7 @@ import java.util.Collection;
  *
  * @author Max Milazzo (mam9563@rit.edu)
  */
-public class CrossingConfiguration implements Configuration {
+public class CrossingConfiguration implements ReversibleConfiguration {
 
     /** Pups on left of river */
     private final int pupsOnLeft;
@@ -132,6 +133,24 @@ public class CrossingConfiguration implements Configuration {
 
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Configuration getGoal() {
+        return new CrossingConfiguration(0, 0, this.pupsOnLeft + this.pupsOnRight,
+                this.wolvesOnLeft + this.wolvesOnRight, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Every boat trip can be undone by the same trip back, so predecessors are the neighbors.
+     */
+    @Override
+    public Collection<Configuration> getPredecessors() {
+        return getNeighbors();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -159,6 +178,15 @@ public class CrossingConfiguration implements Configuration {
         return this.toString().hashCode();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long fingerprint() {
+        return (long) this.pupsOnLeft << 33 | (long) this.wolvesOnLeft << 1 | (this.boatSide ? 1 : 0);
+        // the right bank holds whatever is not on the left, so this is exact within one puzzle
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -14,6 +14,7 @@ import puzzles.hoppers.model.HoppersConfig;
 import puzzles.hoppers.model.HoppersModel;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 
 import java.io.File;
@@ -26,6 +27,9 @@ import java.io.IOException;
  */
 public class HoppersGUI extends Application implements Observer<HoppersModel, String> {
 
+    /** Time a hint answers in, in milliseconds */
+    private final static long HINT_LATENCY = 50;
+
     /** The resources directory is located directly underneath the gui package */
     private final static String RESOURCES_DIR = "resources/";
 
@@ -68,6 +72,24 @@ public class HoppersGUI extends Application implements Observer<HoppersModel, St
 
         this.model = new HoppersModel();
         this.model.addObserver(this);
+        this.model.setCallbackExecutor(Platform::runLater);
+        // background hints update the view on the JavaFX thread
+
+        this.model.setHintLatency(HINT_LATENCY);
+        // answers every hint within the latency, proven optimal or not
+
+        this.model.addSolverListener((depth, width, stats) -> {
+            long seen = stats.getUnique();
+
+            Platform.runLater(() -> {
+
+                if (this.model.isHintPending()) {  // skips progress of a search cancelled since
+                    this.info.setText("Searching depth " + depth + " (" + seen + " configs)");
+                }
+            });
+        });
+        // shows hint search progress until the result arrives
+
         this.model.load(filename, true);
         // initializes the model
 
@@ -134,8 +156,8 @@ public class HoppersGUI extends Application implements Observer<HoppersModel, St
         Button load = new Button("Load");
         // creates control buttons
 
-        hint.setOnAction(event -> model.hint());
-        // sets hint button event
+        hint.setOnAction(event -> model.hintAsync());
+        // sets hint button event, solving off the JavaFX thread
 
         reset.setOnAction(event -> {
             try {
@@ -0,0 +1,67 @@
+package puzzles.hoppers.model;
+
+import puzzles.common.solver.StateCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Packs bitboard Hoppers configurations as the green pad mask words followed
+ * by the red frog pad.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class HoppersBitCodec implements StateCodec<HoppersBitConfig> {
+
+    /** Shared board layout */
+    private final HoppersLayout layout;
+
+    /** Green mask words per record */
+    private final int words;
+
+    /**
+     * HoppersBitCodec constructor.
+     *
+     * @param layout board layout every encoded configuration shares
+     */
+    public HoppersBitCodec(HoppersLayout layout) {
+
+        this.layout = layout;
+        this.words = (layout.getPadCount() + 63) >>> 6;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int stateSize() {
+        return this.words * Long.BYTES + Short.BYTES;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void encode(HoppersBitConfig config, ByteBuffer buffer) {
+
+        for (int w = 0; w < this.words; ++w) {
+            buffer.putLong(config.getGreenWord(w));
+        }
+
+        buffer.putShort((short) config.getRedPad());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public HoppersBitConfig decode(ByteBuffer buffer) {
+
+        long[] green = new long[this.words];
+
+        for (int w = 0; w < this.words; ++w) {
+            green[w] = buffer.getLong();
+        }
+
+        return HoppersBitConfig.of(this.layout, green, buffer.getShort());
+    }
+}
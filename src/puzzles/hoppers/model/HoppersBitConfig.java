@@ -0,0 +1,222 @@
+package puzzles.hoppers.model;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.StreamingConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Bitboard Hoppers configuration.
+ * Frog positions are stored as pad bitmasks over a shared HoppersLayout, so
+ * neighbor generation needs no grid copies or string comparisons. Boards with
+ * up to 64 lily pads use a single word per mask, larger boards use several.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public abstract class HoppersBitConfig implements StreamingConfiguration {
+
+    /** Shared board layout and jump tables */
+    protected final HoppersLayout layout;
+
+    /**
+     * HoppersBitConfig constructor.
+     *
+     * @param layout shared board layout
+     */
+    protected HoppersBitConfig(HoppersLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * Builds the bitboard equivalent of a grid configuration.
+     *
+     * @param config grid configuration
+     * @return bitboard configuration
+     */
+    public static HoppersBitConfig of(HoppersConfig config) {
+
+        String[][] puzzle = config.getPuzzle();
+        HoppersLayout layout = HoppersLayout.forBoard(config.getNumRows(), config.getNumCols(), puzzle);
+
+        boolean[] green = new boolean[layout.getPadCount()];
+        int red = -1;
+
+        for (int p = 0; p < layout.getPadCount(); ++p) {
+
+            String cell = puzzle[layout.padRow(p)][layout.padCol(p)];
+
+            if (cell.equals("G")) {
+                green[p] = true;
+            } else if (cell.equals("R")) {
+                red = p;
+            }
+        }
+
+        if (layout.getPadCount() <= 64) {
+            return new HoppersWordConfig(layout, green, red);
+        } else {
+            return new HoppersMultiWordConfig(layout, green, red);
+        }
+    }
+
+    /**
+     * Builds a bitboard configuration from green pad mask words.
+     *
+     * @param layout board layout
+     * @param green green pad mask words
+     * @param red red frog pad (-1 for none)
+     * @return bitboard configuration
+     */
+    static HoppersBitConfig of(HoppersLayout layout, long[] green, int red) {
+
+        if (layout.getPadCount() <= 64) {
+            return new HoppersWordConfig(layout, green[0], red == -1 ? 0 : 1L << red);
+        }
+
+        boolean[] greenPads = new boolean[layout.getPadCount()];
+
+        for (int p = 0; p < greenPads.length; ++p) {
+            greenPads[p] = (green[p >>> 6] & (1L << p)) != 0;
+        }
+
+        return new HoppersMultiWordConfig(layout, greenPads, red);
+    }
+
+    /**
+     * Is there a green frog on a pad?
+     *
+     * @param pad pad index
+     * @return if pad holds a green frog
+     */
+    public abstract boolean isGreen(int pad);
+
+    /**
+     * Gets red frog pad.
+     *
+     * @return pad holding the red frog (-1 if none)
+     */
+    public abstract int getRedPad();
+
+    /**
+     * Gets number of green frogs left.
+     *
+     * @return green frog count
+     */
+    public abstract int getGreenCount();
+
+    /**
+     * Gets one word of the green frog pad mask.
+     *
+     * @param word word index, pads 64 * word to 64 * word + 63
+     * @return green frog mask word
+     */
+    public abstract long getGreenWord(int word);
+
+    /**
+     * Gets board layout.
+     *
+     * @return shared layout
+     */
+    public HoppersLayout getLayout() {
+        return this.layout;
+    }
+
+    /**
+     * Gets the configurations one jump before this one.
+     * Each frog is moved back along every jump line whose over and landing
+     * pads are empty, and the jumped green frog is put back.
+     *
+     * @return predecessor configurations
+     */
+    public Collection<Configuration> getPredecessors() {
+
+        int words = (this.layout.getPadCount() + 63) >>> 6;
+        Collection<Configuration> predecessors = new ArrayList<>();
+
+        for (int pad = 0; pad < this.layout.getPadCount(); ++pad) {
+            boolean red = pad == getRedPad();
+
+            if (!red && !isGreen(pad)) {
+                continue;
+            }
+
+            int[] over = this.layout.getOverPads(pad);
+            int[] land = this.layout.getLandPads(pad);
+
+            for (int j = 0; j < over.length; ++j) {  // jumps are symmetric, so undo along each
+
+                if (occupied(over[j]) || occupied(land[j])) {
+                    continue;
+                }
+
+                long[] green = new long[words];
+
+                for (int w = 0; w < words; ++w) {
+                    green[w] = getGreenWord(w);
+                }
+
+                green[over[j] >>> 6] |= 1L << over[j];
+                // the jumped green frog comes back
+
+                if (!red) {
+                    green[pad >>> 6] &= ~(1L << pad);
+                    green[land[j] >>> 6] |= 1L << land[j];
+                }
+
+                predecessors.add(of(this.layout, green, red ? land[j] : getRedPad()));
+            }
+        }
+
+        return predecessors;
+    }
+
+    /**
+     * Is there any frog on a pad?
+     *
+     * @param pad pad index
+     * @return if a red or green frog is on the pad
+     */
+    private boolean occupied(int pad) {
+        return pad == getRedPad() || isGreen(pad);
+    }
+
+    /**
+     * Converts this configuration back to a grid configuration.
+     *
+     * @return grid configuration
+     */
+    public HoppersConfig toConfig() {
+
+        boolean[] green = new boolean[this.layout.getPadCount()];
+
+        for (int p = 0; p < green.length; ++p) {
+            green[p] = isGreen(p);
+        }
+
+        return new HoppersConfig(this.layout.getNumRows(), this.layout.getNumCols(),
+                this.layout.toGrid(green, getRedPad()));
+    }
+
+    /**
+     * Mixes a 64-bit value into a well-spread hashcode.
+     *
+     * @param value value to mix
+     * @return mixed value
+     */
+    protected static long mix(long value) {
+
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+
+        return value ^ (value >>> 33);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return toConfig().toString();
+    }
+}
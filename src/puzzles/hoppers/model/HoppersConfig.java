@@ -1,6 +1,9 @@
 package puzzles.hoppers.model;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.NeighborVisitor;
+import puzzles.common.solver.StreamingConfiguration;
+import puzzles.common.solver.ZobristTable;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
@@ -13,7 +16,7 @@ import java.util.Collection;
  *
  * @author Max Milazzo (mam9563@rit.edu)
  */
-public class HoppersConfig implements Configuration {
+public class HoppersConfig implements StreamingConfiguration {
 
     /** Number of rows in configuration */
     private final int numRows;
@@ -24,6 +27,12 @@ public class HoppersConfig implements Configuration {
     /** Main puzzle */
     private final String[][] puzzle;
 
+    /** Zobrist keys shared by every configuration of this board */
+    private final ZobristTable zobrist;
+
+    /** Position-sensitive hash of the frogs on the board */
+    private long hash;
+
     /**
      * Hoppers configuration constructor from file.
      *
@@ -54,6 +63,9 @@ public class HoppersConfig implements Configuration {
                 counter++;
             }
         }
+
+        this.zobrist = ZobristTable.forBoard(this.numRows, this.numCols, 2);
+        this.hash = fullHash();
     }
 
     /**
@@ -68,7 +80,60 @@ public class HoppersConfig implements Configuration {
         this.numRows = numRows;
         this.numCols = numCols;
         this.puzzle = puzzle;
+        this.zobrist = ZobristTable.forBoard(numRows, numCols, 2);
+        this.hash = fullHash();
+
+    }
+
+    /**
+     * Hoppers configuration constructor for derived neighbors.
+     *
+     * @param parent configuration the neighbor was derived from
+     * @param puzzle neighbor puzzle grid
+     * @param hash neighbor hash, updated incrementally from the parent hash
+     */
+    private HoppersConfig(HoppersConfig parent, String[][] puzzle, long hash) {
+
+        this.numRows = parent.numRows;
+        this.numCols = parent.numCols;
+        this.puzzle = puzzle;
+        this.zobrist = parent.zobrist;
+        this.hash = hash;
+
+    }
+
+    /**
+     * Gets the Zobrist key of a frog on a cell.
+     *
+     * @param row cell row
+     * @param col cell column
+     * @param frog frog character
+     * @return frog key
+     */
+    private long frogKey(int row, int col, String frog) {
+        return this.zobrist.key(row * this.numCols + col, frog.equals("R") ? 1 : 0);
+    }
+
+    /**
+     * Computes the hash of the whole grid from scratch.
+     *
+     * @return grid hash
+     */
+    private long fullHash() {
+
+        long fullHash = 0;
+
+        for (int i = 0; i < this.numRows; ++i) {
 
+            for (int j = 0; j < this.numCols; ++j) {
+
+                if (this.puzzle[i][j].equals("G") || this.puzzle[i][j].equals("R")) {
+                    fullHash ^= frogKey(i, j, this.puzzle[i][j]);
+                }
+            }
+        }
+
+        return fullHash;
     }
 
     /**
@@ -161,11 +226,9 @@ public class HoppersConfig implements Configuration {
      * @param row frog row
      * @param col frog column
      * @param frog frog character
-     * @return neighbors
+     * @param visitor neighbor callback
      */
-    private Collection<Configuration> neighborsAt(int row, int col, String frog) {
-
-        Collection<Configuration> newNeighbors = new ArrayList<>();
+    private void neighborsAt(int row, int col, String frog, NeighborVisitor visitor) {
 
         int count;
 
@@ -190,6 +253,16 @@ public class HoppersConfig implements Configuration {
                 if (this.puzzle[jumpSpots[i][0]][jumpSpots[i][1]].equals(".")
                     && this.puzzle[frogSpots[i][0]][frogSpots[i][1]].equals("G")) {
 
+                    long newHash = this.hash ^ frogKey(row, col, frog)
+                            ^ frogKey(jumpSpots[i][0], jumpSpots[i][1], frog)
+                            ^ frogKey(frogSpots[i][0], frogSpots[i][1], "G");
+                    // only the three changed cells are rehashed
+
+                    if (!visitor.wants(newHash)) {
+                        continue;
+                        // skips the grid copy for neighbors the search has already seen
+                    }
+
                     String[][] newPuzzle = new String[this.numRows][this.numCols];
 
                     for (int m = 0; m < this.numRows; ++m) {  // creates puzzle grid copy to edit
@@ -202,23 +275,19 @@ public class HoppersConfig implements Configuration {
                     newPuzzle[jumpSpots[i][0]][jumpSpots[i][1]] = frog;
                     newPuzzle[frogSpots[i][0]][frogSpots[i][1]] = ".";
 
-                    newNeighbors.add(new HoppersConfig(this.numRows, this.numCols, newPuzzle));
-                    // adds all neighbors to list
+                    visitor.accept(new HoppersConfig(this, newPuzzle, newHash));
+                    // passes neighbor to the search
 
                 }
             }
         }
-
-        return newNeighbors;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Collection<Configuration> getNeighbors() {
-
-        Collection<Configuration> neighbors = new ArrayList<>();
+    public void forEachNeighbor(NeighborVisitor visitor) {
 
         for (int i = 0; i < this.numRows; ++i) {
 
@@ -227,12 +296,22 @@ public class HoppersConfig implements Configuration {
                 if (this.puzzle[i][j].equals("G")
                         || this.puzzle[i][j].equals("R")) {
 
-                    neighbors.addAll(neighborsAt(i, j, this.puzzle[i][j]));
+                    neighborsAt(i, j, this.puzzle[i][j], visitor);
                     // gets all neighbors for each frog
 
                 }
             }
         }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<Configuration> getNeighbors() {
+
+        Collection<Configuration> neighbors = new ArrayList<>();
+        forEachNeighbor(neighbors::add);
 
         return neighbors;
     }
@@ -310,6 +389,10 @@ public class HoppersConfig implements Configuration {
                             this.puzzle[frogSpots[i][0]][frogSpots[i][1]] = ".";
                             // moves frog on main puzzle grid
 
+                            this.hash ^= frogKey(beginRow, beginCol, frog)
+                                    ^ frogKey(moveRow, moveCol, frog)
+                                    ^ frogKey(frogSpots[i][0], frogSpots[i][1], "G");
+
                             return true;
 
                         }
@@ -323,6 +406,14 @@ public class HoppersConfig implements Configuration {
 
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long fingerprint() {
+        return this.hash;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -333,6 +424,11 @@ public class HoppersConfig implements Configuration {
         if (other instanceof HoppersConfig) {
             HoppersConfig otherHoppersConfig = (HoppersConfig) other;
 
+            if (this.hash != otherHoppersConfig.hash) {
+                return false;
+            }
+            // differing hashes always mean differing grids
+
             for (int i = 0; i < this.numRows; ++i) {
 
                 for (int j = 0; j < this.numCols; ++j) {
@@ -355,19 +451,7 @@ public class HoppersConfig implements Configuration {
      */
     @Override
     public int hashCode() {
-
-        int hash = 0;
-
-        for (int i = 0; i < this.numRows; ++i) {
-
-            for (int j = 0; j < this.numCols; ++j) {
-
-                hash += this.puzzle[i][j].hashCode();
-
-            }
-        }
-
-        return hash;
+        return ZobristTable.fold(this.hash);
     }
 
     /**
@@ -0,0 +1,253 @@
+package puzzles.hoppers.model;
+
+import puzzles.common.solver.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Depth-first Hoppers solver.
+ * Every jump removes exactly one green frog, so every solution has the same
+ * length and the first one a depth-first search reaches is as short as the
+ * BFS one. Positions proven to have no solution are remembered in a fixed-size
+ * transposition table, peg solitaire style, and jumps are tried in order of
+ * how few green frogs they leave stranded, with no frog next to them to
+ * jump them.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class HoppersDfsSolver {
+
+    /** Dead position table, fingerprint + 1 per slot (0 for empty) */
+    private final long[] dead;
+
+    /** Whether dead positions are shared between mirror images */
+    private boolean useSymmetry;
+
+    /** Whether positions failing the frog class invariants are cut off */
+    private boolean usePruning;
+
+    /** Positions visited by the last search */
+    private int nodes;
+
+    /** Table hits in the last search */
+    private int deadHits;
+
+    /** Positions cut off by the invariants in the last search */
+    private int pruned;
+
+    /**
+     * HoppersDfsSolver constructor with a 1M entry (8 MB) dead position table.
+     */
+    public HoppersDfsSolver() {
+        this(1 << 20);
+    }
+
+    /**
+     * HoppersDfsSolver constructor.
+     * The table is direct-mapped and overwrites on collision, so it never
+     * grows past its size and forgetting a position only costs a re-search.
+     *
+     * @param tableSize dead position table entries, rounded up to a power of two
+     */
+    public HoppersDfsSolver(int tableSize) {
+        this.dead = new long[Integer.highestOneBit(Math.max(2, tableSize) * 2 - 1)];
+    }
+
+    /**
+     * Enables or disables sharing dead positions between mirror images.
+     *
+     * @param useSymmetry whether to key the table on canonical fingerprints
+     */
+    public void setSymmetry(boolean useSymmetry) {
+        this.useSymmetry = useSymmetry;
+    }
+
+    /**
+     * Enables or disables cutting off positions with a green frog that can
+     * never be jumped (see HoppersInvariants).
+     *
+     * @param usePruning whether to check positions against the invariants
+     */
+    public void setPruning(boolean usePruning) {
+        this.usePruning = usePruning;
+    }
+
+    /**
+     * DFS algorithm to find a solution path.
+     *
+     * @param start starting configuration
+     * @param display whether to print search counts
+     * @return path to a solution (empty if there is none)
+     */
+    public List<Configuration> findPath(HoppersBitConfig start, boolean display) {
+
+        this.nodes = 0;
+        this.deadHits = 0;
+        this.pruned = 0;
+
+        HoppersSymmetry group = this.useSymmetry ? HoppersSymmetry.forLayout(start.getLayout()) : null;
+        HoppersInvariants invariants = this.usePruning ? HoppersInvariants.forLayout(start.getLayout()) : null;
+        long[][] jumpers = jumpers(start.getLayout());
+
+        ArrayList<Configuration> path = new ArrayList<>();
+        path.add(start);
+
+        if (!search(path, group, invariants, jumpers)) {
+            path.clear();
+        }
+
+        if (display) {
+            System.out.println("Visited configs: " + this.nodes);
+            System.out.println("Dead config hits: " + this.deadHits);
+
+            if (this.usePruning) {
+                System.out.println("Pruned configs: " + this.pruned);
+            }
+        }
+
+        return path;
+    }
+
+    /**
+     * Searches below the last configuration on the path.
+     *
+     * @param path current path, left holding a solution path on success
+     * @param group symmetry group for table keys (null for none)
+     * @param invariants invariants to prune by (null for none)
+     * @param jumpers pads able to jump each pad, indexed by [pad][word]
+     * @return whether a solution was found
+     */
+    private boolean search(ArrayList<Configuration> path, HoppersSymmetry group, HoppersInvariants invariants,
+                           long[][] jumpers) {
+
+        HoppersBitConfig current = (HoppersBitConfig) path.get(path.size() - 1);
+        this.nodes++;
+
+        if (current.isSolution()) {
+            return true;
+        }
+
+        if (invariants != null && invariants.isDead(current)) {
+            this.pruned++;
+            return false;
+        }
+
+        long key = (group == null ? current.fingerprint() : group.canonicalFingerprint(current)) + 1;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - Integer.numberOfTrailingZeros(this.dead.length)));
+        // exact and canonical fingerprints keep structure in their low bits, so the slot takes the high ones
+
+        if (this.dead[slot] == key) {
+            this.deadHits++;
+            return false;
+        }
+
+        List<Configuration> children = new ArrayList<>(current.getNeighbors());
+        int[] scores = new int[children.size()];
+
+        for (int i = 0; i < scores.length; ++i) {
+            scores[i] = stranded((HoppersBitConfig) children.get(i), jumpers);
+        }
+
+        for (int i = 1; i < scores.length; ++i) {  // insertion sort by score, keeping jump order on ties
+            Configuration child = children.get(i);
+            int score = scores[i];
+            int k = i;
+
+            while (k > 0 && scores[k - 1] > score) {
+                scores[k] = scores[k - 1];
+                children.set(k, children.get(k - 1));
+                k--;
+            }
+
+            scores[k] = score;
+            children.set(k, child);
+        }
+
+        for (Configuration child : children) {
+            path.add(child);
+
+            if (search(path, group, invariants, jumpers)) {
+                return true;
+            }
+
+            path.remove(path.size() - 1);
+        }
+
+        this.dead[slot] = key;
+        // no jump from here leads to a solution
+        return false;
+    }
+
+    /**
+     * Counts green frogs that no frog is next to, which cannot be jumped
+     * until some frog moves next to them.
+     *
+     * @param config configuration
+     * @param jumpers pads able to jump each pad
+     * @return stranded green frog count
+     */
+    private static int stranded(HoppersBitConfig config, long[][] jumpers) {
+
+        int words = jumpers.length == 0 ? 0 : jumpers[0].length;
+        long[] frogs = new long[words];
+
+        for (int w = 0; w < words; ++w) {
+            frogs[w] = config.getGreenWord(w);
+        }
+
+        if (config.getRedPad() != -1) {
+            frogs[config.getRedPad() >>> 6] |= 1L << config.getRedPad();
+        }
+
+        int count = 0;
+
+        for (int w = 0; w < words; ++w) {
+
+            for (long left = config.getGreenWord(w); left != 0; left &= left - 1) {
+                int pad = (w << 6) + Long.numberOfTrailingZeros(left);
+                boolean reachable = false;
+
+                for (int v = 0; v < words && !reachable; ++v) {
+                    reachable = (frogs[v] & jumpers[pad][v]) != 0;
+                }
+
+                if (!reachable) {
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Builds, for every pad, the mask of pads that can jump over it.
+     *
+     * @param layout board layout
+     * @return jumper masks, indexed by [pad][word]
+     */
+    private static long[][] jumpers(HoppersLayout layout) {
+
+        int words = (layout.getPadCount() + 63) >>> 6;
+        long[][] masks = new long[layout.getPadCount()][words];
+
+        for (int p = 0; p < layout.getPadCount(); ++p) {
+
+            for (int over : layout.getOverPads(p)) {
+                masks[over][p >>> 6] |= 1L << p;
+            }
+        }
+
+        return masks;
+    }
+
+    /**
+     * Gets number of configurations visited by the last search.
+     *
+     * @return visited config count
+     */
+    public int getNodes() {
+        return this.nodes;
+    }
+}
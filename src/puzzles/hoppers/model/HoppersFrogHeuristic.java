@@ -0,0 +1,45 @@
+package puzzles.hoppers.model;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.Heuristic;
+
+/**
+ * Frogs remaining heuristic for Hoppers.
+ * Every jump removes exactly one green frog, so the green frog count is the
+ * exact number of moves left on any solvable configuration. Works on both the
+ * grid, bitboard and symmetry-reduced representations.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class HoppersFrogHeuristic implements Heuristic<Configuration> {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int estimate(Configuration config) {
+
+        if (config instanceof HoppersSymmetricConfig) {
+            return ((HoppersSymmetricConfig) config).getConfig().getGreenCount();
+        }
+
+        if (config instanceof HoppersBitConfig) {
+            return ((HoppersBitConfig) config).getGreenCount();
+        }
+
+        HoppersConfig gridConfig = (HoppersConfig) config;
+        int greenCount = 0;
+
+        for (String[] row : gridConfig.getPuzzle()) {
+
+            for (String cell : row) {
+
+                if (cell.equals("G")) {
+                    greenCount++;
+                }
+            }
+        }
+
+        return greenCount;
+    }
+}
@@ -0,0 +1,398 @@
+package puzzles.hoppers.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unsolvability proofs for Hoppers, from invariants of the jump rules.
+ *
+ * Position classes: a jump empties the jumping and jumped pads and fills the
+ * landing pad, so it flips the occupancy of three pads whatever the frog
+ * colours. Any set of pads meeting every jump's three pads an even number of
+ * times therefore keeps the parity of its frog count forever. Those sets form
+ * the GF(2) nullspace of the jump triples, and their parities are the board's
+ * position class.
+ *
+ * Frog classes: a frog only lands on pads joined to its own by chains of
+ * jumps, which on the standard lattice are the classes of
+ * (row % 2, col % 2, (row / 2 + col / 2) % 2). The red frog is never jumped,
+ * so a solution leaves it alone on a pad of its class, and the start must
+ * share its position class with one of those single-frog boards. Mid-search,
+ * a green frog is stuck for good once no frog is left in any class able to
+ * jump over its pad, since frogs never change class.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class HoppersInvariants {
+
+    /** Analyzers, by layout */
+    private static final Map<HoppersLayout, HoppersInvariants> ANALYZERS = new ConcurrentHashMap<>();
+
+    /** Board layout */
+    private final HoppersLayout layout;
+
+    /** Words per pad mask */
+    private final int words;
+
+    /** Pad masks of the position class invariants */
+    private final long[][] invariants;
+
+    /** Position class of every single-frog board, by pad */
+    private final long[][] padClasses;
+
+    /** Frog class of every pad */
+    private final int[] frogClasses;
+
+    /** Pad mask of every frog class */
+    private final long[][] classPads;
+
+    /** Pad mask of the frogs able to jump over each frog class */
+    private final long[][] capturers;
+
+    /**
+     * HoppersInvariants constructor.
+     *
+     * @param layout board layout
+     */
+    private HoppersInvariants(HoppersLayout layout) {
+
+        this.layout = layout;
+        this.words = (layout.getPadCount() + 63) >>> 6;
+        this.invariants = nullspace();
+
+        this.padClasses = new long[layout.getPadCount()][];
+
+        for (int p = 0; p < layout.getPadCount(); ++p) {
+            long[] single = new long[this.words];
+            single[p >>> 6] = 1L << p;
+
+            this.padClasses[p] = positionClass(single);
+        }
+
+        this.frogClasses = frogClasses();
+
+        int classCount = Arrays.stream(this.frogClasses).max().orElse(-1) + 1;
+        this.classPads = new long[classCount][this.words];
+        this.capturers = new long[classCount][this.words];
+
+        for (int p = 0; p < layout.getPadCount(); ++p) {
+            this.classPads[this.frogClasses[p]][p >>> 6] |= 1L << p;
+        }
+
+        for (int p = 0; p < layout.getPadCount(); ++p) {
+
+            for (int over : layout.getOverPads(p)) {
+                long[] jumpers = this.capturers[this.frogClasses[over]];
+                long[] mates = this.classPads[this.frogClasses[p]];
+
+                for (int w = 0; w < this.words; ++w) {
+                    jumpers[w] |= mates[w];
+                    // every frog of p's class may one day stand on p
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the analyzer of a board layout.
+     *
+     * @param layout board layout
+     * @return invariant analyzer
+     */
+    public static HoppersInvariants forLayout(HoppersLayout layout) {
+        return ANALYZERS.computeIfAbsent(layout, HoppersInvariants::new);
+    }
+
+    /**
+     * Solves for the pad sets meeting every jump triple evenly.
+     *
+     * @return nullspace basis as pad masks
+     */
+    private long[][] nullspace() {
+
+        int padCount = this.layout.getPadCount();
+        List<long[]> rows = new ArrayList<>();
+
+        for (int p = 0; p < padCount; ++p) {  // one row per jump triple
+
+            int[] over = this.layout.getOverPads(p);
+            int[] land = this.layout.getLandPads(p);
+
+            for (int i = 0; i < over.length; ++i) {
+                long[] row = new long[this.words];
+
+                row[p >>> 6] |= 1L << p;
+                row[over[i] >>> 6] |= 1L << over[i];
+                row[land[i] >>> 6] |= 1L << land[i];
+
+                rows.add(row);
+            }
+        }
+
+        int[] pivotRows = new int[padCount];
+        Arrays.fill(pivotRows, -1);
+
+        int rank = 0;
+
+        for (int col = 0; col < padCount && rank < rows.size(); ++col) {  // reduced row echelon form
+            int pivot = -1;
+
+            for (int r = rank; r < rows.size() && pivot == -1; ++r) {
+
+                if (test(rows.get(r), col)) {
+                    pivot = r;
+                }
+            }
+
+            if (pivot != -1) {
+                long[] pivotRow = rows.get(pivot);
+                rows.set(pivot, rows.get(rank));
+                rows.set(rank, pivotRow);
+
+                for (int r = 0; r < rows.size(); ++r) {
+
+                    if (r != rank && test(rows.get(r), col)) {
+                        long[] row = rows.get(r);
+
+                        for (int w = 0; w < this.words; ++w) {
+                            row[w] ^= pivotRow[w];
+                        }
+                    }
+                }
+
+                pivotRows[col] = rank++;
+            }
+        }
+
+        List<long[]> basis = new ArrayList<>();
+
+        for (int free = 0; free < padCount; ++free) {  // one basis vector per free column
+
+            if (pivotRows[free] == -1) {
+                long[] vector = new long[this.words];
+                vector[free >>> 6] |= 1L << free;
+
+                for (int col = 0; col < padCount; ++col) {
+
+                    if (pivotRows[col] != -1 && test(rows.get(pivotRows[col]), free)) {
+                        vector[col >>> 6] |= 1L << col;
+                    }
+                }
+
+                basis.add(vector);
+            }
+        }
+
+        return basis.toArray(new long[0][]);
+    }
+
+    /**
+     * Groups pads joined by chains of jumps.
+     *
+     * @return frog class of every pad, numbered from 0
+     */
+    private int[] frogClasses() {
+
+        int padCount = this.layout.getPadCount();
+        int[] parent = new int[padCount];
+
+        for (int p = 0; p < padCount; ++p) {
+            parent[p] = p;
+        }
+
+        for (int p = 0; p < padCount; ++p) {  // union-find over jump landings
+
+            for (int land : this.layout.getLandPads(p)) {
+                parent[find(parent, p)] = find(parent, land);
+            }
+        }
+
+        int[] classes = new int[padCount];
+        int[] numbers = new int[padCount];
+        Arrays.fill(numbers, -1);
+
+        int count = 0;
+
+        for (int p = 0; p < padCount; ++p) {
+            int root = find(parent, p);
+
+            if (numbers[root] == -1) {
+                numbers[root] = count++;
+            }
+
+            classes[p] = numbers[root];
+        }
+
+        return classes;
+    }
+
+    /**
+     * Finds the root of a union-find tree, halving the path on the way.
+     *
+     * @param parent union-find parents
+     * @param pad pad index
+     * @return root pad
+     */
+    private static int find(int[] parent, int pad) {
+
+        while (parent[pad] != pad) {
+            parent[pad] = parent[parent[pad]];
+            pad = parent[pad];
+        }
+
+        return pad;
+    }
+
+    /**
+     * Is a pad bit set in a mask?
+     *
+     * @param mask mask words
+     * @param pad pad index
+     * @return if bit is set
+     */
+    private static boolean test(long[] mask, int pad) {
+        return (mask[pad >>> 6] & (1L << pad)) != 0;
+    }
+
+    /**
+     * Computes the position class of a set of occupied pads.
+     *
+     * @param occupied occupied pad mask
+     * @return parity of each invariant's frog count, as bits
+     */
+    private long[] positionClass(long[] occupied) {
+
+        long[] parities = new long[(this.invariants.length + 63) >>> 6];
+
+        for (int i = 0; i < this.invariants.length; ++i) {
+            int bits = 0;
+
+            for (int w = 0; w < this.words; ++w) {
+                bits += Long.bitCount(this.invariants[i][w] & occupied[w]);
+            }
+
+            if ((bits & 1) != 0) {
+                parities[i >>> 6] |= 1L << i;
+            }
+        }
+
+        return parities;
+    }
+
+    /**
+     * Gets the occupied pads of a configuration.
+     *
+     * @param config configuration
+     * @return mask of pads holding any frog
+     */
+    private long[] occupied(HoppersBitConfig config) {
+
+        long[] occupied = new long[this.words];
+
+        for (int w = 0; w < this.words; ++w) {
+            occupied[w] = config.getGreenWord(w);
+        }
+
+        if (config.getRedPad() != -1) {
+            occupied[config.getRedPad() >>> 6] |= 1L << config.getRedPad();
+        }
+
+        return occupied;
+    }
+
+    /**
+     * Checks if a configuration can be proven to have no solution.
+     * Meant to run once before a search.
+     *
+     * @param config configuration
+     * @return reason no solution exists, or null if none could be proven
+     */
+    public String unsolvableReason(HoppersBitConfig config) {
+
+        if (config.isSolution()) {
+            return null;
+        }
+
+        int red = config.getRedPad();
+
+        if (red == -1) {
+            return "no red frog to remain";
+            // the last frog standing would be green
+        }
+
+        long[] start = positionClass(occupied(config));
+        boolean reachable = false;
+
+        for (int p = 0; p < this.layout.getPadCount() && !reachable; ++p) {  // goals with only the red frog left
+            reachable = this.frogClasses[p] == this.frogClasses[red] && Arrays.equals(this.padClasses[p], start);
+        }
+
+        if (!reachable) {
+            return "position class differs from every goal";
+        }
+
+        if (isDead(config)) {
+            return "a green frog can never be jumped";
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks the cheap frog class condition that can fail during a search.
+     *
+     * @param config configuration
+     * @return whether some green frog can provably never be jumped
+     */
+    public boolean isDead(HoppersBitConfig config) {
+
+        long[] occupied = occupied(config);
+
+        for (int k = 0; k < this.classPads.length; ++k) {
+            boolean greens = false;
+            boolean jumpers = false;
+
+            for (int w = 0; w < this.words; ++w) {
+                greens |= (config.getGreenWord(w) & this.classPads[k][w]) != 0;
+                jumpers |= (occupied[w] & this.capturers[k][w]) != 0;
+            }
+
+            if (greens && !jumpers) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets the number of independent position class invariants.
+     *
+     * @return nullspace dimension
+     */
+    public int getInvariantCount() {
+        return this.invariants.length;
+    }
+
+    /**
+     * Gets the frog class of a pad.
+     *
+     * @param pad pad index
+     * @return frog class, numbered from 0
+     */
+    public int getFrogClass(int pad) {
+        return this.frogClasses[pad];
+    }
+
+    /**
+     * Gets the number of frog classes.
+     *
+     * @return frog class count
+     */
+    public int getFrogClassCount() {
+        return this.classPads.length;
+    }
+}
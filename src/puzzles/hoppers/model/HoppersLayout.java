@@ -0,0 +1,250 @@
+package puzzles.hoppers.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Static Hoppers board layout shared by bitboard configurations.
+ * Lily pads are numbered row-major and every bitboard bit refers to a pad index,
+ * so water cells never take up mask space. Jump tables are computed once per
+ * board shape.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class HoppersLayout {
+
+    /** Layouts already built, keyed by board shape */
+    private static final Map<String, HoppersLayout> LAYOUTS = new ConcurrentHashMap<>();
+
+    /** Jump row offsets, in the same order HoppersConfig tries them */
+    private static final int[] JUMP_ROWS = {-2, -2, 2, 2, 0, 0, -4, 4};
+
+    /** Jump column offsets, in the same order HoppersConfig tries them */
+    private static final int[] JUMP_COLS = {-2, 2, -2, 2, -4, 4, 0, 0};
+
+    /** Number of rows in board */
+    private final int numRows;
+
+    /** Number of columns in board */
+    private final int numCols;
+
+    /** Number of lily pads in board */
+    private final int padCount;
+
+    /** Flattened cell index of each pad */
+    private final int[] padCells;
+
+    /** Pad index of each flattened cell (-1 for water) */
+    private final int[] cellPads;
+
+    /** Pads jumped over, indexed by [pad][jump] */
+    private final int[][] overPads;
+
+    /** Pads landed on, indexed by [pad][jump] */
+    private final int[][] landPads;
+
+    /**
+     * HoppersLayout constructor.
+     *
+     * @param numRows board row count
+     * @param numCols board column count
+     * @param puzzle board grid ("*" cells are water)
+     */
+    private HoppersLayout(int numRows, int numCols, String[][] puzzle) {
+
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.cellPads = new int[numRows * numCols];
+
+        int pads = 0;
+
+        for (int i = 0; i < numRows; ++i) {
+
+            for (int j = 0; j < numCols; ++j) {
+
+                if (puzzle[i][j].equals("*")) {
+                    this.cellPads[i * numCols + j] = -1;
+                } else {
+                    this.cellPads[i * numCols + j] = pads++;
+                }
+            }
+        }
+
+        this.padCount = pads;
+        this.padCells = new int[pads];
+        this.overPads = new int[pads][];
+        this.landPads = new int[pads][];
+
+        for (int cell = 0; cell < this.cellPads.length; ++cell) {
+
+            if (this.cellPads[cell] != -1) {
+                this.padCells[this.cellPads[cell]] = cell;
+            }
+        }
+
+        for (int p = 0; p < pads; ++p) {
+
+            int row = this.padCells[p] / numCols;
+            int col = this.padCells[p] % numCols;
+            int count = row % 2 == 0 ? 8 : 4;
+            // odd rows only jump diagonally, as in HoppersConfig
+
+            int[] over = new int[count];
+            int[] land = new int[count];
+            int jumps = 0;
+
+            for (int i = 0; i < count; ++i) {
+
+                int overPad = padAt(row + JUMP_ROWS[i] / 2, col + JUMP_COLS[i] / 2);
+                int landPad = padAt(row + JUMP_ROWS[i], col + JUMP_COLS[i]);
+
+                if (overPad != -1 && landPad != -1) {
+                    over[jumps] = overPad;
+                    land[jumps] = landPad;
+                    jumps++;
+                }
+            }
+
+            this.overPads[p] = Arrays.copyOf(over, jumps);
+            this.landPads[p] = Arrays.copyOf(land, jumps);
+        }
+    }
+
+    /**
+     * Gets the shared layout for a board.
+     *
+     * @param numRows board row count
+     * @param numCols board column count
+     * @param puzzle board grid
+     * @return board layout
+     */
+    public static HoppersLayout forBoard(int numRows, int numCols, String[][] puzzle) {
+
+        StringBuilder shape = new StringBuilder(numRows + "x" + numCols + ":");
+
+        for (String[] row : puzzle) {
+
+            for (String cell : row) {
+                shape.append(cell.equals("*") ? '*' : '.');
+            }
+        }
+
+        return LAYOUTS.computeIfAbsent(shape.toString(), key -> new HoppersLayout(numRows, numCols, puzzle));
+    }
+
+    /**
+     * Gets pad index of a coordinate.
+     *
+     * @param row coordinate row
+     * @param col coordinate column
+     * @return pad index, or -1 if off board or water
+     */
+    public int padAt(int row, int col) {
+
+        if (row < 0 || col < 0 || row >= this.numRows || col >= this.numCols) {
+            return -1;
+        }
+
+        return this.cellPads[row * this.numCols + col];
+    }
+
+    /**
+     * Gets row count.
+     *
+     * @return row number
+     */
+    public int getNumRows() {
+        return this.numRows;
+    }
+
+    /**
+     * Gets column count.
+     *
+     * @return column number
+     */
+    public int getNumCols() {
+        return this.numCols;
+    }
+
+    /**
+     * Gets pad count.
+     *
+     * @return number of lily pads
+     */
+    public int getPadCount() {
+        return this.padCount;
+    }
+
+    /**
+     * Gets row of a pad.
+     *
+     * @param pad pad index
+     * @return pad row
+     */
+    public int padRow(int pad) {
+        return this.padCells[pad] / this.numCols;
+    }
+
+    /**
+     * Gets column of a pad.
+     *
+     * @param pad pad index
+     * @return pad column
+     */
+    public int padCol(int pad) {
+        return this.padCells[pad] % this.numCols;
+    }
+
+    /**
+     * Gets pads jumped over from a pad.
+     *
+     * @param pad starting pad
+     * @return pads jumped over, parallel to getLandPads
+     */
+    public int[] getOverPads(int pad) {
+        return this.overPads[pad];
+    }
+
+    /**
+     * Gets pads landed on from a pad.
+     *
+     * @param pad starting pad
+     * @return pads landed on, parallel to getOverPads
+     */
+    public int[] getLandPads(int pad) {
+        return this.landPads[pad];
+    }
+
+    /**
+     * Builds a grid from frog data.
+     *
+     * @param green pads holding green frogs
+     * @param red pad holding the red frog (-1 if none)
+     * @return puzzle grid
+     */
+    public String[][] toGrid(boolean[] green, int red) {
+
+        String[][] puzzle = new String[this.numRows][this.numCols];
+
+        for (int i = 0; i < this.numRows; ++i) {
+
+            for (int j = 0; j < this.numCols; ++j) {
+
+                int pad = this.cellPads[i * this.numCols + j];
+
+                if (pad == -1) {
+                    puzzle[i][j] = "*";
+                } else if (pad == red) {
+                    puzzle[i][j] = "R";
+                } else if (green[pad]) {
+                    puzzle[i][j] = "G";
+                } else {
+                    puzzle[i][j] = ".";
+                }
+            }
+        }
+
+        return puzzle;
+    }
+}
@@ -1,13 +1,27 @@
 package puzzles.hoppers.model;
 
 import puzzles.common.Observer;
+import puzzles.common.solver.AnytimeSolver;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.DistanceTable;
 import puzzles.common.solver.Solver;
+import puzzles.common.solver.SolverListener;
+import puzzles.common.solver.SolverResult;
+import puzzles.common.solver.SolverStats;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 /**
  * Hoppers model class.
@@ -16,6 +30,9 @@ import java.util.List;
  */
 public class HoppersModel {
 
+    /** Configurations kept per level by the beam search of anytime hints */
+    private static final int BEAM_WIDTH = 128;
+
     /** The collection of observers of this model */
     private final List<Observer<HoppersModel, String>> observers = new LinkedList<>();
 
@@ -31,6 +48,52 @@ public class HoppersModel {
     /** Current loaded file */
     private String currentFileName;
 
+    /** Whether hints are looked up in a retrograde distance table */
+    private boolean retrograde;
+
+    /** Whether distance tables are saved and reused next to puzzle files */
+    private boolean persistTables;
+
+    /** Distance table of the loaded puzzle (null if not built) */
+    private DistanceTable<HoppersBitConfig> distances;
+
+    /** Runs hints in the background */
+    private final ExecutorService hintExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hoppers-hint");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Receive level progress of hint searches */
+    private final List<SolverListener> solverListeners = new CopyOnWriteArrayList<>();
+
+    /** Runs results of background hints (null until set, which hintAsync() requires) */
+    private Executor callbackExecutor;
+
+    /** Longest a hint may search in milliseconds (0 for no limit) */
+    private long hintTimeLimit;
+
+    /** Time an anytime hint answers in, in milliseconds (0 for exact hints only) */
+    private long hintLatency;
+
+    /** Hint running in the background (null if none) */
+    private Future<?> pendingHint;
+
+    /** Search for a shortest path after an approximate hint (null if none) */
+    private Future<?> pendingRefine;
+
+    /** Last refinement finished, not cached yet (null if none) */
+    private volatile Refinement refinement;
+
+    /** Bumped whenever a background hint goes stale */
+    private int hintGeneration;
+
+    /** Last path hinted along, from where it was found to a solution (null if none) */
+    private List<HoppersBitConfig> cachedPath;
+
+    /** Index of each configuration on the cached path */
+    private final Map<HoppersBitConfig, Integer> cachedSteps = new HashMap<>();
+
     /**
      * The view calls this to add itself as an observer.
      *
@@ -50,29 +113,394 @@ public class HoppersModel {
         }
     }
 
+    /**
+     * Enables or disables hints from a retrograde distance table.
+     * The table is built when the next puzzle is loaded, after which every
+     * hint is a lookup instead of a search.
+     *
+     * @param retrograde whether to build a distance table on load
+     */
+    public void setRetrograde(boolean retrograde) {
+        this.retrograde = retrograde;
+    }
+
+    /**
+     * Enables or disables saving distance tables next to puzzle files.
+     * A saved table is reused as long as the puzzle file is unchanged.
+     *
+     * @param persistTables whether to save and reuse distance tables
+     */
+    public void setPersistTables(boolean persistTables) {
+        this.persistTables = persistTables;
+    }
+
+    /**
+     * Sets where results of background hints are delivered.
+     * Observers are alerted through it, so a GUI passes its UI thread's
+     * run-later method and sees hints arrive like any other update. It must
+     * be set before hintAsync() is called, since running results in place
+     * would move the board from the hint thread.
+     *
+     * @param callbackExecutor runs hint results on the thread that owns the model
+     */
+    public void setCallbackExecutor(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Sets the longest a hint may search before giving up.
+     * Hints from the cached path or a distance table are never limited.
+     *
+     * @param millis time limit in milliseconds (0 for no limit)
+     */
+    public void setHintTimeLimit(long millis) {
+        this.hintTimeLimit = millis;
+    }
+
+    /**
+     * Sets the time anytime hints answer in.
+     * A hint that can't prove a shortest path in time moves along a beam
+     * search path instead, says it is not proven optimal, and keeps searching
+     * for a shortest path in the background until the board changes, so the
+     * next hint can use it. The latency takes the place of the hint time limit.
+     *
+     * @param millis hint latency in milliseconds (0 for exact hints only)
+     */
+    public void setHintLatency(long millis) {
+        this.hintLatency = millis;
+    }
+
+    /**
+     * Subscribes to level progress of the searches run for hints.
+     * Listeners of background hints are called on the hint thread.
+     *
+     * @param listener progress listener
+     */
+    public void addSolverListener(SolverListener listener) {
+        this.solverListeners.add(listener);
+    }
+
     /**
      * Gets next step in puzzle to solve.
      */
     public void hint() {
 
+        cancelHint();
+
+        List<HoppersBitConfig> path = cachedPathFrom();
+
+        if (path != null) {
+            applyHint(known(path));
+        } else {
+            HoppersBitConfig start = HoppersBitConfig.of(this.currentConfig);
+            applyHint(solve(start, this.distances, newSolver(), this.hintLatency));
+        }
+
+    }
+
+    /**
+     * Gets next step in puzzle to solve on a background thread.
+     * The result is delivered through the callback executor unless the puzzle
+     * is moved, reset or reloaded first, which cancels the search. Calls made
+     * while a hint is still pending are folded into it, and hints along the
+     * last path found are answered right away. A search that throws still
+     * clears the pending hint and reports that the hint failed.
+     *
+     * @throws IllegalStateException if no callback executor was set
+     */
+    public void hintAsync() {
+
+        if (this.callbackExecutor == null) {
+            throw new IllegalStateException("No callback executor set for background hints");
+        }
+
+        if (this.pendingHint != null) {
+            return;
+            // coalesces into the hint already running
+        }
+
+        List<HoppersBitConfig> cached = cachedPathFrom();
+
+        if (cached != null) {
+            applyHint(known(cached));
+            return;
+        }
+
+        if (this.pendingRefine != null) {
+            this.pendingRefine.cancel(true);
+            this.pendingRefine = null;
+            // frees the hint thread, a refinement that finished in time was just used
+        }
+
+        HoppersBitConfig start = HoppersBitConfig.of(this.currentConfig);
+        DistanceTable<HoppersBitConfig> table = this.distances;
+        int generation = this.hintGeneration;
+        Solver puzzleSolver = newSolver();
+        long latency = this.hintLatency;
+        // the current configuration is moved in place, so the search gets a snapshot
+
+        FutureTask<Void> task = new FutureTask<>(() -> {
+
+            SolverResult result = null;
+
+            try {
+                result = solve(start, table, puzzleSolver, latency);
+            } finally {
+                SolverResult found = result;
+                // still null if the search threw, which is reported instead of leaving the hint pending
+
+                this.callbackExecutor.execute(() -> {
+
+                    if (generation == this.hintGeneration) {  // drops hints for a board that has since changed
+                        this.pendingHint = null;
+
+                        if (found == null) {
+                            alertObservers("Hint failed!");
+                        } else {
+                            applyHint(found);
+                        }
+                    }
+                });
+            }
+        }, null);
+
+        this.pendingHint = task;
+        this.hintExecutor.execute(task);
+        // published before it runs, so even an instant callback finds its own hint pending
+    }
+
+    /**
+     * Is a background hint still on its way?
+     *
+     * @return if a hint was requested and neither delivered nor cancelled yet
+     */
+    public boolean isHintPending() {
+        return this.pendingHint != null;
+    }
+
+    /**
+     * Cancels any hint or refinement running in the background.
+     */
+    private void cancelHint() {
+
+        if (this.pendingHint != null) {
+            this.pendingHint.cancel(true);
+            this.pendingHint = null;
+        }
+
+        if (this.pendingRefine != null) {
+            this.pendingRefine.cancel(true);
+            this.pendingRefine = null;
+        }
+
+        this.hintGeneration++;
+
+    }
+
+    /**
+     * Looks up the current configuration on the last path found.
+     *
+     * @return rest of the cached path from the current configuration (null if not on it)
+     */
+    private List<HoppersBitConfig> cachedPathFrom() {
+
+        Refinement refined = this.refinement;
+
+        if (refined != null) {
+            this.refinement = null;
+
+            if (refined.generation == this.hintGeneration) {  // drops a path refined for a board that has since changed
+                cachePath(refined.path);
+            }
+        }
+
+        if (this.cachedPath == null) {
+            return null;
+        }
+
+        Integer step = this.cachedSteps.get(HoppersBitConfig.of(this.currentConfig));
+
+        return step == null ? null : this.cachedPath.subList(step, this.cachedPath.size());
+    }
+
+    /**
+     * Caches a shortest path, unless it starts on the path already cached.
+     *
+     * @param path shortest path to a solution
+     */
+    private void cachePath(List<HoppersBitConfig> path) {
+
+        if (!this.cachedSteps.containsKey(path.get(0))) {
+            this.cachedPath = path;
+            this.cachedSteps.clear();
+
+            for (int i = 0; i < path.size(); ++i) {
+                this.cachedSteps.put(path.get(i), i);
+            }
+        }
+    }
+
+    /**
+     * Forgets the last path found.
+     */
+    private void clearCachedPath() {
+        this.cachedPath = null;
+        this.refinement = null;
+        this.cachedSteps.clear();
+    }
+
+    /**
+     * Searches for a shortest path from the current configuration in the background.
+     * The path is cached by the next hint, unless the board changes first,
+     * which cancels the search. A path that still lands after the change is
+     * told apart by its hint generation.
+     */
+    private void refine() {
+
+        HoppersBitConfig start = HoppersBitConfig.of(this.currentConfig);
+        Solver puzzleSolver = newSolver();
+        puzzleSolver.setTimeLimit(0);
+        // runs until done or cancelled
+
+        int generation = this.hintGeneration;
+
+        this.pendingRefine = this.hintExecutor.submit(() -> {
+
+            SolverResult result = solve(start, null, puzzleSolver, 0);
+
+            if (result.getStatus() == SolverResult.Status.SOLVED && !Thread.currentThread().isInterrupted()) {
+                this.refinement = new Refinement(generation, steps(result));
+            }
+        });
+    }
+
+    /**
+     * Creates a solver for hint searches, reporting to the solver listeners
+     * and limited to the hint time limit.
+     *
+     * @return hint solver
+     */
+    private Solver newSolver() {
+
         Solver puzzleSolver = new Solver();
-        // creates Solver instance
+        this.solverListeners.forEach(puzzleSolver::addListener);
+        puzzleSolver.setPuzzleFile(this.currentFileName);
+        puzzleSolver.setTimeLimit(this.hintTimeLimit);
 
-        ArrayList<Configuration> path = (ArrayList<Configuration>) puzzleSolver.findPath(currentConfig, false);
-        // gets solve data
+        return puzzleSolver;
+    }
 
-        if (path.size() > 1) {
+    /**
+     * Finds a shortest path to a solution.
+     *
+     * @param start bitboard configuration to start from
+     * @param table distance table (null to search)
+     * @param puzzleSolver solver to search with
+     * @param latency time an anytime search answers in, in milliseconds (0 for an exact search)
+     * @return search result, with a path from start to a solution if solved
+     */
+    private static SolverResult solve(HoppersBitConfig start, DistanceTable<HoppersBitConfig> table,
+                                      Solver puzzleSolver, long latency) {
 
-            this.currentConfig = (HoppersConfig) path.get(1);
-            alertObservers("Next step!");
+        if (table != null) {
+            HoppersBitConfig current = start;
+            int distance = table.distance(current);
 
-        } else {
+            if (distance >= 0) {
+                List<HoppersBitConfig> path = new ArrayList<>();
+                path.add(current);
 
-            if (this.currentConfig.isSolution()) {
-                alertObservers("Already solved!");
-            } else {
-                alertObservers("No solution!");
+                for (int step = distance; step > 0; --step) {
+                    current = table.hint(current);
+                    path.add(current);
+                }
+
+                return known(path);
+            } else if (distance == DistanceTable.NO_SOLUTION) {
+                return known(new ArrayList<>());
             }
+            // falls back to searching for configurations outside the table
+        }
+
+        HoppersInvariants invariants = HoppersInvariants.forLayout(start.getLayout());
+
+        if (invariants.unsolvableReason(start) != null) {
+            return known(new ArrayList<>());
+            // proven without searching
+        }
+
+        if (latency > 0) {
+            AnytimeSolver<Configuration> anytimeSolver = new AnytimeSolver<>(puzzleSolver,
+                    new HoppersFrogHeuristic(), BEAM_WIDTH);
+            anytimeSolver.setPruning(next -> invariants.isDead((HoppersBitConfig) next));
+            // skips configurations with a green frog that can never be jumped
+
+            return anytimeSolver.solve(start, latency);
+        }
+
+        puzzleSolver.setPruning(next -> invariants.isDead((HoppersBitConfig) next));
+        // skips configurations with a green frog that can never be jumped
+
+        return puzzleSolver.solve(start);
+    }
+
+    /**
+     * Wraps a path known without searching as a result.
+     *
+     * @param path shortest path to a solution (empty if unsolvable)
+     * @return SOLVED or NO_SOLUTION result
+     */
+    private static SolverResult known(List<HoppersBitConfig> path) {
+        return new SolverResult(new ArrayList<>(path), new SolverStats(), null);
+    }
+
+    /**
+     * Gets the path of a result as bitboard configurations.
+     *
+     * @param result search result
+     * @return path of the result
+     */
+    private static List<HoppersBitConfig> steps(SolverResult result) {
+
+        List<HoppersBitConfig> steps = new ArrayList<>();
+
+        for (Configuration step : result.getPath()) {
+            steps.add((HoppersBitConfig) step);
+        }
+
+        return steps;
+    }
+
+    /**
+     * Moves to the next step of a path and alerts observers.
+     * A new shortest path is cached, so later hints along it need no search,
+     * and an approximate one starts a background search for a shortest path.
+     * With anytime hints on, the message says whether the step is proven optimal.
+     *
+     * @param result hint search result
+     */
+    private void applyHint(SolverResult result) {
+
+        List<HoppersBitConfig> path = steps(result);
+
+        if (result.getStatus() == SolverResult.Status.BUDGET_EXCEEDED) {
+            alertObservers("No hint in time!");
+        } else if (path.isEmpty()) {
+            alertObservers("No solution!");
+        } else if (path.size() == 1) {
+            alertObservers("Already solved!");
+        } else if (result.getStatus() == SolverResult.Status.APPROXIMATE && !path.get(path.size() - 1).isSolution()) {
+            refine();
+            alertObservers("No hint in time!");
+            // jumps cannot be undone, so a step toward a state that may be a dead end is never taken
+        } else if (result.getStatus() == SolverResult.Status.APPROXIMATE) {
+            this.currentConfig = path.get(1).toConfig();
+            refine();
+            alertObservers("Next step (not proven optimal)!");
+        } else {
+            cachePath(path);
+            this.currentConfig = path.get(1).toConfig();
+            alertObservers(this.hintLatency > 0 ? "Next step (proven optimal)!" : "Next step!");
         }
     }
 
@@ -84,6 +512,8 @@ public class HoppersModel {
      */
     public void load(String fileName, boolean init) {
 
+        cancelHint();
+        clearCachedPath();
         this.currentFileName = fileName;
 
         try {
@@ -98,6 +528,11 @@ public class HoppersModel {
 
         }
 
+        if (init || this.distances == null) {
+            this.distances = this.retrograde ? buildDistances(fileName) : null;
+            // a reset keeps the table of the same puzzle
+        }
+
         this.selected = new int[] {-1, -1};
         // sets default coordinate value
 
@@ -108,6 +543,59 @@ public class HoppersModel {
         }
     }
 
+    /**
+     * Builds the distance table of the loaded puzzle, or reads a saved one.
+     *
+     * @param fileName configuration file
+     * @return distance table (null if the puzzle is too large to rank)
+     */
+    private DistanceTable<HoppersBitConfig> buildDistances(String fileName) {
+
+        HoppersBitConfig start = HoppersBitConfig.of(this.currentConfig);
+        DistanceTable<HoppersBitConfig> table;
+
+        try {
+            table = new DistanceTable<>(new HoppersRanker(start), HoppersBitConfig::getPredecessors);
+        } catch (IllegalArgumentException iae) {
+            return null;
+        }
+
+        Path tableFile = Path.of(fileName + ".dist");
+        long key = 0;
+
+        if (this.persistTables) {
+
+            try {
+
+                key = DistanceTable.fileKey(Path.of(fileName));
+
+                if (table.load(tableFile, key)) {
+                    return table;
+                }
+
+            } catch (IOException ioe) {
+                // rebuilds a missing or damaged table
+            }
+        }
+
+        try {
+            table.build(start);
+        } catch (IllegalStateException ise) {
+            return null;
+        }
+
+        if (this.persistTables) {
+
+            try {
+                table.save(tableFile, key);
+            } catch (IOException ioe) {
+                // keeps the table in memory only
+            }
+        }
+
+        return table;
+    }
+
     /**
      * Selects coordinate to move or move location.
      *
@@ -134,6 +622,13 @@ public class HoppersModel {
 
             if (moved) {
 
+                cancelHint();
+
+                if (this.cachedPath != null && cachedPathFrom() == null) {
+                    clearCachedPath();
+                    // the move left the cached path
+                }
+
                 alertObservers("Jumped from (" + this.selected[0] + ", " + this.selected[1]
                         + ") to (" + row + ", " + col + ")");
 
@@ -187,4 +682,27 @@ public class HoppersModel {
     public Configuration getCurrentConfig() {
         return this.currentConfig;
     }
-}
\ No newline at end of file
+
+    /**
+     * Shortest path found in the background, with the hint generation it was searched under.
+     */
+    private static final class Refinement {
+
+        /** Hint generation when the search started */
+        final int generation;
+
+        /** Shortest path to a solution */
+        final List<HoppersBitConfig> path;
+
+        /**
+         * Refinement constructor.
+         *
+         * @param generation hint generation when the search started
+         * @param path shortest path to a solution
+         */
+        Refinement(int generation, List<HoppersBitConfig> path) {
+            this.generation = generation;
+            this.path = path;
+        }
+    }
+}
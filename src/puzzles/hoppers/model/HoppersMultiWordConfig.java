@@ -0,0 +1,267 @@
+package puzzles.hoppers.model;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.NeighborVisitor;
+import puzzles.common.solver.ZobristTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Multi-word bitboard Hoppers configuration, for boards with more than 64 pads.
+ * The fingerprint is a Zobrist hash over the frog pads, so each jump updates
+ * it with three XORs and unwanted neighbors are never built.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class HoppersMultiWordConfig extends HoppersBitConfig {
+
+    /** Green frog pad mask words */
+    private final long[] green;
+
+    /** Red frog pad mask words */
+    private final long[] red;
+
+    /** Zobrist keys of the board shape */
+    private final ZobristTable zobrist;
+
+    /** Zobrist hash of the frog pads */
+    private final long hash;
+
+    /**
+     * HoppersMultiWordConfig constructor from pad data.
+     *
+     * @param layout shared board layout
+     * @param green pads holding green frogs
+     * @param red pad holding the red frog (-1 if none)
+     */
+    public HoppersMultiWordConfig(HoppersLayout layout, boolean[] green, int red) {
+
+        super(layout);
+
+        this.green = new long[(layout.getPadCount() + 63) >>> 6];
+        this.red = new long[this.green.length];
+
+        for (int p = 0; p < green.length; ++p) {
+
+            if (green[p]) {
+                this.green[p >>> 6] |= 1L << p;
+            }
+        }
+
+        if (red != -1) {
+            this.red[red >>> 6] |= 1L << red;
+        }
+
+        this.zobrist = ZobristTable.forBoard(layout.getNumRows(), layout.getNumCols(), 2);
+
+        long hash = 0;
+
+        for (int p = 0; p < green.length; ++p) {
+
+            if (green[p]) {
+                hash ^= key(p, 0);
+            }
+        }
+
+        this.hash = red == -1 ? hash : hash ^ key(red, 1);
+    }
+
+    /**
+     * HoppersMultiWordConfig constructor with masks.
+     *
+     * @param layout shared board layout
+     * @param green green frog pad mask words
+     * @param red red frog pad mask words
+     * @param zobrist Zobrist keys of the board shape
+     * @param hash Zobrist hash of the frog pads
+     */
+    private HoppersMultiWordConfig(HoppersLayout layout, long[] green, long[] red, ZobristTable zobrist, long hash) {
+
+        super(layout);
+
+        this.green = green;
+        this.red = red;
+        this.zobrist = zobrist;
+        this.hash = hash;
+    }
+
+    /**
+     * Gets the Zobrist key of a frog on a pad.
+     *
+     * @param pad pad index
+     * @param piece 0 for a green frog, 1 for the red frog
+     * @return frog key
+     */
+    private long key(int pad, int piece) {
+        return this.zobrist.key(this.layout.padRow(pad) * this.layout.getNumCols() + this.layout.padCol(pad), piece);
+    }
+
+    /**
+     * Is a pad bit set in a mask?
+     *
+     * @param mask mask words
+     * @param pad pad index
+     * @return if bit is set
+     */
+    private static boolean test(long[] mask, int pad) {
+        return (mask[pad >>> 6] & (1L << pad)) != 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSolution() {
+
+        for (long word : this.green) {
+
+            if (word != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachNeighbor(NeighborVisitor visitor) {
+
+        for (int w = 0; w < this.green.length; ++w) {
+
+            for (long left = this.green[w] | this.red[w]; left != 0; left &= left - 1) {  // loops through every frog
+
+                int pad = (w << 6) + Long.numberOfTrailingZeros(left);
+                boolean isRed = test(this.red, pad);
+
+                int[] over = this.layout.getOverPads(pad);
+                int[] land = this.layout.getLandPads(pad);
+
+                for (int i = 0; i < over.length; ++i) {
+
+                    if (test(this.green, over[i]) && !test(this.green, land[i]) && !test(this.red, land[i])) {
+
+                        int piece = isRed ? 1 : 0;
+                        long newHash = this.hash ^ key(over[i], 0) ^ key(pad, piece) ^ key(land[i], piece);
+
+                        if (!visitor.wants(newHash)) {
+                            continue;
+                            // skips copying the masks of a neighbor already seen
+                        }
+
+                        long[] newGreen = this.green.clone();
+                        long[] newRed = this.red;
+
+                        newGreen[over[i] >>> 6] ^= 1L << over[i];
+
+                        if (isRed) {
+                            newRed = new long[this.red.length];
+                            newRed[land[i] >>> 6] = 1L << land[i];
+                        } else {
+                            newGreen[pad >>> 6] ^= 1L << pad;
+                            newGreen[land[i] >>> 6] ^= 1L << land[i];
+                        }
+
+                        visitor.accept(new HoppersMultiWordConfig(this.layout, newGreen, newRed, this.zobrist, newHash));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<Configuration> getNeighbors() {
+
+        Collection<Configuration> neighbors = new ArrayList<>();
+        forEachNeighbor(neighbors::add);
+
+        return neighbors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isGreen(int pad) {
+        return test(this.green, pad);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRedPad() {
+
+        for (int w = 0; w < this.red.length; ++w) {
+
+            if (this.red[w] != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(this.red[w]);
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getGreenCount() {
+
+        int count = 0;
+
+        for (long word : this.green) {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getGreenWord(int word) {
+        return this.green[word];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long fingerprint() {
+        return this.hash;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object other) {
+        boolean result = false;
+
+        if (other instanceof HoppersMultiWordConfig) {
+            HoppersMultiWordConfig otherMultiConfig = (HoppersMultiWordConfig) other;
+            result = Arrays.equals(this.green, otherMultiConfig.green)
+                    && Arrays.equals(this.red, otherMultiConfig.red)
+                    && this.layout == otherMultiConfig.layout;
+        }
+
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return ZobristTable.fold(fingerprint());
+    }
+}
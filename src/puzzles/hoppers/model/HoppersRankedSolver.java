@@ -0,0 +1,186 @@
+package puzzles.hoppers.model;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.StateBitmap;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Hoppers BFS over ranked configurations with a one-bit-per-state visited set.
+ * Frontiers are kept as arrays of ranks, and no parent is stored at all:
+ * every jump removes a green frog, so each level holds exactly the visited
+ * configurations with a given green count, and the path is rebuilt backward
+ * by undoing jumps into configurations whose bit is set.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class HoppersRankedSolver {
+
+    /** Directory for a file-backed bitmap (null to keep it in the heap when it fits) */
+    private Path directory;
+
+    /** Whether to keep expanding after a solution is found */
+    private boolean fullEnumeration;
+
+    /**
+     * Sets the directory the visited bitmap file is created under.
+     * Without one, the bitmap is kept in the heap unless it would not fit,
+     * in which case it goes to a file in the system temp directory.
+     *
+     * @param directory bitmap directory (null to choose by bitmap size)
+     */
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Enables or disables enumerating every reachable configuration.
+     * The shortest path is still returned, along with per-level counts for
+     * the whole state space.
+     *
+     * @param fullEnumeration whether to keep expanding after a solution is found
+     */
+    public void setFullEnumeration(boolean fullEnumeration) {
+        this.fullEnumeration = fullEnumeration;
+    }
+
+    /**
+     * Creates the visited bitmap, in the heap only if no directory was set
+     * and the bitmap fits.
+     *
+     * @param bits number of ranks
+     * @param display whether to report where the bitmap is kept
+     * @return empty bitmap
+     * @throws IOException if a bitmap file cannot be created
+     */
+    private StateBitmap newBitmap(long bits, boolean display) throws IOException {
+
+        if (this.directory == null && StateBitmap.fitsInHeap(bits)) {
+            return new StateBitmap(bits);
+        }
+
+        Path bitmapDirectory = this.directory != null ? this.directory : Path.of(System.getProperty("java.io.tmpdir"));
+
+        if (display) {
+            System.out.println("Bitmap: " + ((bits + 7) >>> 3) + " bytes in a file under " + bitmapDirectory);
+        }
+
+        return new StateBitmap(bits, bitmapDirectory);
+    }
+
+    /**
+     * Ranked BFS algorithm to find the shortest path to a solution.
+     *
+     * @param start starting configuration
+     * @param display whether to print config counts and per-level sizes
+     * @return BFS shortest path to end
+     * @throws IOException if a file-backed bitmap fails
+     */
+    public List<Configuration> findPath(HoppersBitConfig start, boolean display) throws IOException {
+
+        HoppersRanker ranker = new HoppersRanker(start);
+        long totalConfigs = 1;
+        long found = -1;
+
+        try (StateBitmap visited = newBitmap(ranker.size(), display)) {
+
+            long[] frontier = {ranker.rank(start)};
+            int frontierSize = 1;
+            visited.add(frontier[0]);
+
+            for (int depth = 0; frontierSize > 0 && (found == -1 || this.fullEnumeration); ++depth) {
+                // runs one BFS level per iteration
+
+                long[] next = new long[Math.max(16, frontierSize)];
+                int nextSize = 0;
+
+                for (int i = 0; i < frontierSize; ++i) {
+                    HoppersBitConfig current = ranker.unrank(frontier[i]);
+
+                    if (current.isSolution()) {
+
+                        if (found == -1) {
+                            found = frontier[i];
+                        }
+
+                        continue;
+                    }
+
+                    for (Configuration neighbor : current.getNeighbors()) {
+                        totalConfigs++;
+
+                        long rank = ranker.rank((HoppersBitConfig) neighbor);
+
+                        if (visited.add(rank)) {
+
+                            if (nextSize == next.length) {
+                                next = Arrays.copyOf(next, nextSize + (nextSize >> 1));
+                            }
+
+                            next[nextSize++] = rank;
+                        }
+                    }
+                }
+
+                if (display) {
+                    System.out.println("Level " + depth + ": " + frontierSize + " configs");
+                }
+
+                frontier = next;
+                frontierSize = nextSize;
+            }
+
+            if (display) {
+                System.out.println("Ranked states: " + ranker.size());
+                System.out.println("Bitmap bytes: " + visited.memoryBytes());
+                System.out.println("Total configs: " + totalConfigs);
+                System.out.println("Unique configs: " + visited.count());
+            }
+
+            return found == -1 ? new ArrayList<>() : rebuildPath(ranker, visited, ranker.unrank(found));
+        }
+    }
+
+    /**
+     * Rebuilds the path to a solution by undoing jumps into visited configurations.
+     *
+     * @param ranker configuration ranker
+     * @param visited visited bitmap
+     * @param end solution configuration
+     * @return path from start to end
+     * @throws IOException if a file-backed bitmap fails
+     */
+    private static List<Configuration> rebuildPath(HoppersRanker ranker, StateBitmap visited, HoppersBitConfig end)
+            throws IOException {
+
+        LinkedList<Configuration> pathList = new LinkedList<>();
+        HoppersBitConfig current = end;
+        pathList.addFirst(current);
+
+        while (current != null) {  // runs until the start, which has no visited predecessor
+            HoppersBitConfig previous = null;
+
+            for (Configuration predecessor : current.getPredecessors()) {
+                HoppersBitConfig candidate = (HoppersBitConfig) predecessor;
+
+                if (ranker.covers(candidate) && visited.contains(ranker.rank(candidate))) {
+                    previous = candidate;
+                    break;
+                }
+            }
+
+            if (previous != null) {
+                pathList.addFirst(previous);
+            }
+
+            current = previous;
+        }
+
+        return new ArrayList<>(pathList);
+    }
+}
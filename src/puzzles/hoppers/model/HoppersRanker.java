@@ -0,0 +1,290 @@
+package puzzles.hoppers.model;
+
+import puzzles.common.solver.StateRanker;
+
+/**
+ * Combinatorial ranking of the Hoppers configurations reachable from a start.
+ * Frogs never leave their frog class (see HoppersInvariants) and no class
+ * ever gains a green frog, so a reachable configuration is the red frog's pad
+ * within its class plus, for every class, a subset of its pads no larger than
+ * the class's starting green count. Each subset is ranked by size and then in
+ * colex order, with the red frog's pad left out of its own class, and the
+ * parts are combined in mixed radix. Every such configuration gets its own
+ * rank and every rank below size() is one of them.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class HoppersRanker implements StateRanker<HoppersBitConfig> {
+
+    /** Board layout */
+    private final HoppersLayout layout;
+
+    /** Pads of each frog class, ascending */
+    private final int[][] classPads;
+
+    /** Most green frogs each frog class can hold */
+    private final int[] caps;
+
+    /** Frog class of the red frog (-1 for none) */
+    private final int redClass;
+
+    /** Subset rank offsets, by class and subset size */
+    private final long[][] offsets;
+
+    /** Subset ranks per class */
+    private final long[] radices;
+
+    /** Binomial coefficients, by n and k */
+    private final long[][] binomials;
+
+    /** Number of ranks */
+    private final long size;
+
+    /**
+     * HoppersRanker constructor.
+     *
+     * @param start configuration whose reachable configurations are ranked
+     */
+    public HoppersRanker(HoppersBitConfig start) {
+
+        this.layout = start.getLayout();
+
+        HoppersInvariants invariants = HoppersInvariants.forLayout(this.layout);
+        int padCount = this.layout.getPadCount();
+        int classCount = invariants.getFrogClassCount();
+
+        int[] classSizes = new int[classCount];
+        this.caps = new int[classCount];
+
+        for (int p = 0; p < padCount; ++p) {
+            classSizes[invariants.getFrogClass(p)]++;
+
+            if (start.isGreen(p)) {
+                this.caps[invariants.getFrogClass(p)]++;
+            }
+        }
+
+        this.classPads = new int[classCount][];
+
+        for (int k = 0; k < classCount; ++k) {
+            this.classPads[k] = new int[classSizes[k]];
+            classSizes[k] = 0;
+        }
+
+        for (int p = 0; p < padCount; ++p) {
+            int k = invariants.getFrogClass(p);
+            this.classPads[k][classSizes[k]++] = p;
+        }
+
+        this.redClass = start.getRedPad() == -1 ? -1 : invariants.getFrogClass(start.getRedPad());
+
+        this.binomials = new long[padCount + 1][];
+
+        for (int n = 0; n <= padCount; ++n) {  // Pascal's triangle, saturating where it overflows
+            this.binomials[n] = new long[n + 1];
+            this.binomials[n][0] = 1;
+            this.binomials[n][n] = 1;
+
+            for (int k = 1; k < n; ++k) {
+                long sum = this.binomials[n - 1][k - 1] + this.binomials[n - 1][k];
+                this.binomials[n][k] = sum < 0 ? Long.MAX_VALUE : sum;
+            }
+        }
+
+        this.offsets = new long[classCount][];
+        this.radices = new long[classCount];
+
+        long total = this.redClass == -1 ? 1 : this.classPads[this.redClass].length;
+
+        try {
+
+            for (int k = 0; k < classCount; ++k) {
+                int slots = slots(k);
+
+                this.offsets[k] = new long[this.caps[k] + 2];
+
+                for (int j = 0; j <= this.caps[k]; ++j) {
+                    this.offsets[k][j + 1] = Math.addExact(this.offsets[k][j], binomial(slots, j));
+                }
+
+                this.radices[k] = this.offsets[k][this.caps[k] + 1];
+                total = Math.multiplyExact(total, this.radices[k]);
+            }
+
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Too many configurations to rank in a long", e);
+        }
+
+        this.size = total;
+    }
+
+    /**
+     * Gets the number of pads green frogs of a class can stand on at once.
+     *
+     * @param k frog class
+     * @return class pads, less the red frog's if it is in the class
+     */
+    private int slots(int k) {
+        return this.classPads[k].length - (k == this.redClass ? 1 : 0);
+    }
+
+    /**
+     * Gets a binomial coefficient.
+     *
+     * @param n set size
+     * @param k subset size
+     * @return n choose k (0 if k is over n, saturated on overflow)
+     */
+    private long binomial(int n, int k) {
+
+        if (k > n) {
+            return 0;
+        }
+
+        if (this.binomials[n][k] == Long.MAX_VALUE) {
+            throw new ArithmeticException("Binomial overflow");
+        }
+
+        return this.binomials[n][k];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long size() {
+        return this.size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Other configurations may be given the rank of a ranked one.
+     */
+    @Override
+    public boolean covers(HoppersBitConfig config) {
+
+        if ((config.getRedPad() == -1) != (this.redClass == -1)
+                || config.getRedPad() != -1 && indexOf(this.classPads[this.redClass], config.getRedPad()) == -1) {
+            return false;
+        }
+
+        for (int k = 0; k < this.classPads.length; ++k) {
+            int count = 0;
+
+            for (int pad : this.classPads[k]) {
+
+                if (config.isGreen(pad)) {
+                    count++;
+                }
+            }
+
+            if (count > this.caps[k]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long rank(HoppersBitConfig config) {
+
+        int red = config.getRedPad();
+        long rank = 0;
+
+        if (this.redClass != -1) {
+            rank = indexOf(this.classPads[this.redClass], red);
+        }
+
+        for (int k = 0; k < this.classPads.length; ++k) {
+            int[] pads = this.classPads[k];
+            int count = 0;
+            long colex = 0;
+
+            for (int i = 0, slot = 0; i < pads.length; ++i) {
+
+                if (pads[i] == red) {
+                    continue;
+                    // the red frog's pad is not a slot
+                }
+
+                if (config.isGreen(pads[i])) {
+                    colex += binomial(slot, ++count);
+                }
+
+                slot++;
+            }
+
+            rank = rank * this.radices[k] + this.offsets[k][count] + colex;
+        }
+
+        return rank;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public HoppersBitConfig unrank(long rank) {
+
+        long[] subsets = new long[this.classPads.length];
+
+        for (int k = this.classPads.length - 1; k >= 0; --k) {
+            subsets[k] = rank % this.radices[k];
+            rank /= this.radices[k];
+        }
+
+        int red = this.redClass == -1 ? -1 : this.classPads[this.redClass][(int) rank];
+        long[] green = new long[(this.layout.getPadCount() + 63) >>> 6];
+
+        for (int k = 0; k < this.classPads.length; ++k) {
+            int[] pads = this.classPads[k];
+            int count = 0;
+
+            while (this.offsets[k][count + 1] <= subsets[k]) {
+                count++;
+            }
+
+            long colex = subsets[k] - this.offsets[k][count];
+            int slot = slots(k);
+            int skipped = k == this.redClass ? indexOf(pads, red) : pads.length;
+
+            for (int j = count; j > 0; --j) {  // greedy colex unranking, largest slot first
+
+                do {
+                    slot--;
+                } while (binomial(slot, j) > colex);
+
+                colex -= binomial(slot, j);
+
+                int pad = pads[slot < skipped ? slot : slot + 1];
+                green[pad >>> 6] |= 1L << pad;
+                // slots past the red frog's pad are shifted by one
+            }
+        }
+
+        return HoppersBitConfig.of(this.layout, green, red);
+    }
+
+    /**
+     * Finds a pad in a class.
+     *
+     * @param pads class pads, ascending
+     * @param pad pad to find
+     * @return index of the pad (-1 if absent)
+     */
+    private static int indexOf(int[] pads, int pad) {
+
+        for (int i = 0; i < pads.length; ++i) {
+
+            if (pads[i] == pad) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,159 @@
+package puzzles.hoppers.model;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.NeighborVisitor;
+import puzzles.common.solver.StreamingConfiguration;
+import puzzles.common.solver.ZobristTable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Hoppers configuration compared up to board symmetry.
+ * Wraps a real bitboard configuration but takes its equality, hash and
+ * fingerprint from the whole orbit under the board's HoppersSymmetry, so a
+ * search visits each family of mirror images once. Neighbors are built from
+ * the real configuration, so returned paths stay in the real orientation.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class HoppersSymmetricConfig implements StreamingConfiguration {
+
+    /** Real configuration */
+    private final HoppersBitConfig config;
+
+    /** Symmetry group of the board */
+    private final HoppersSymmetry symmetry;
+
+    /** Fingerprint shared by every image of the configuration */
+    private final long canonical;
+
+    /**
+     * HoppersSymmetricConfig constructor.
+     * Detects the board's symmetries on first use.
+     *
+     * @param config real configuration
+     */
+    public HoppersSymmetricConfig(HoppersBitConfig config) {
+        this(config, HoppersSymmetry.forLayout(config.getLayout()));
+    }
+
+    /**
+     * HoppersSymmetricConfig constructor with a known symmetry group.
+     *
+     * @param config real configuration
+     * @param symmetry symmetry group of the board
+     */
+    private HoppersSymmetricConfig(HoppersBitConfig config, HoppersSymmetry symmetry) {
+        this(config, symmetry, symmetry.canonicalFingerprint(config));
+    }
+
+    /**
+     * HoppersSymmetricConfig constructor with a computed canonical fingerprint.
+     *
+     * @param config real configuration
+     * @param symmetry symmetry group of the board
+     * @param canonical canonical fingerprint
+     */
+    private HoppersSymmetricConfig(HoppersBitConfig config, HoppersSymmetry symmetry, long canonical) {
+
+        this.config = config;
+        this.symmetry = symmetry;
+        this.canonical = canonical;
+    }
+
+    /**
+     * Gets the real configuration.
+     *
+     * @return wrapped configuration
+     */
+    public HoppersBitConfig getConfig() {
+        return this.config;
+    }
+
+    /**
+     * Gets the symmetry group of the board.
+     *
+     * @return symmetry group
+     */
+    public HoppersSymmetry getSymmetry() {
+        return this.symmetry;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSolution() {
+        return this.config.isSolution();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachNeighbor(NeighborVisitor visitor) {
+
+        this.config.forEachNeighbor(neighbor -> {
+            HoppersBitConfig real = (HoppersBitConfig) neighbor;
+            long image = this.symmetry.canonicalFingerprint(real);
+
+            if (visitor.wants(image)) {
+                visitor.accept(new HoppersSymmetricConfig(real, this.symmetry, image));
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<Configuration> getNeighbors() {
+
+        Collection<Configuration> neighbors = new ArrayList<>();
+        forEachNeighbor(neighbors::add);
+
+        return neighbors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long fingerprint() {
+        return this.canonical;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object other) {
+        boolean result = false;
+
+        if (other instanceof HoppersSymmetricConfig) {
+            HoppersSymmetricConfig otherSymmetricConfig = (HoppersSymmetricConfig) other;
+            result = this.canonical == otherSymmetricConfig.canonical
+                    && this.symmetry == otherSymmetricConfig.symmetry
+                    && this.symmetry.equivalent(this.config, otherSymmetricConfig.config);
+        }
+
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return ZobristTable.fold(this.canonical);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return this.config.toString();
+    }
+}
@@ -0,0 +1,265 @@
+package puzzles.hoppers.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Symmetry group of a Hoppers board.
+ * Tries the reflections and rotations of the board rectangle and keeps those
+ * that map lily pads onto lily pads and every legal jump onto a legal jump.
+ * The goal of clearing every green frog is unaffected by any of them, so
+ * configurations that are images of each other are equally far from solved.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class HoppersSymmetry {
+
+    /** Detected groups, by layout */
+    private static final Map<HoppersLayout, HoppersSymmetry> GROUPS = new ConcurrentHashMap<>();
+
+    /** Board layout */
+    private final HoppersLayout layout;
+
+    /** Pad permutation of each symmetry, identity first */
+    private final int[][] perms;
+
+    /** Per-byte mask images of each symmetry, for boards of up to 64 pads (null otherwise) */
+    private final long[][] byteImages;
+
+    /**
+     * HoppersSymmetry constructor.
+     *
+     * @param layout board layout
+     */
+    private HoppersSymmetry(HoppersLayout layout) {
+
+        this.layout = layout;
+
+        List<int[]> valid = new ArrayList<>();
+
+        for (int t = 0; t < 8; ++t) {  // the eight symmetries of a square, fewer fit a rectangle
+            int[] perm = permutation(t);
+
+            if (perm != null && preservesJumps(perm)) {
+                valid.add(perm);
+            }
+        }
+
+        this.perms = valid.toArray(new int[0][]);
+
+        if (layout.getPadCount() <= 64) {
+            this.byteImages = new long[this.perms.length][8 * 256];
+
+            for (int t = 0; t < this.perms.length; ++t) {
+
+                for (int k = 0; k < 8; ++k) {
+
+                    for (int v = 0; v < 256; ++v) {
+                        long image = 0;
+
+                        for (int bit = 0; bit < 8; ++bit) {
+                            int pad = k * 8 + bit;
+
+                            if ((v & (1 << bit)) != 0 && pad < layout.getPadCount()) {
+                                image |= 1L << this.perms[t][pad];
+                            }
+                        }
+
+                        this.byteImages[t][k * 256 + v] = image;
+                    }
+                }
+            }
+        } else {
+            this.byteImages = null;
+        }
+    }
+
+    /**
+     * Gets the symmetry group of a board layout.
+     *
+     * @param layout board layout
+     * @return symmetry group
+     */
+    public static HoppersSymmetry forLayout(HoppersLayout layout) {
+        return GROUPS.computeIfAbsent(layout, HoppersSymmetry::new);
+    }
+
+    /**
+     * Maps every pad through one of the rectangle symmetries.
+     *
+     * @param t symmetry number, 0 to 7
+     * @return pad permutation, or null if the board shape or pads do not allow it
+     */
+    private int[] permutation(int t) {
+
+        int rows = this.layout.getNumRows();
+        int cols = this.layout.getNumCols();
+
+        if (t >= 4 && rows != cols) {
+            return null;
+            // quarter turns and diagonal reflections need a square board
+        }
+
+        int[] perm = new int[this.layout.getPadCount()];
+
+        for (int p = 0; p < perm.length; ++p) {
+
+            int r = this.layout.padRow(p);
+            int c = this.layout.padCol(p);
+
+            int[][] images = {
+                    {r, c}, {r, cols - 1 - c}, {rows - 1 - r, c}, {rows - 1 - r, cols - 1 - c},
+                    {c, r}, {cols - 1 - c, rows - 1 - r}, {c, rows - 1 - r}, {cols - 1 - c, r}};
+            // identity, mirrors, half turn, diagonal mirrors and quarter turns
+
+            perm[p] = this.layout.padAt(images[t][0], images[t][1]);
+
+            if (perm[p] == -1) {
+                return null;
+            }
+        }
+
+        return perm;
+    }
+
+    /**
+     * Checks that a pad permutation maps every jump onto a jump.
+     *
+     * @param perm pad permutation
+     * @return whether the permutation is a symmetry of the jump rules
+     */
+    private boolean preservesJumps(int[] perm) {
+
+        for (int p = 0; p < perm.length; ++p) {
+
+            int[] over = this.layout.getOverPads(p);
+            int[] land = this.layout.getLandPads(p);
+            int[] imageOver = this.layout.getOverPads(perm[p]);
+            int[] imageLand = this.layout.getLandPads(perm[p]);
+
+            if (over.length != imageOver.length) {
+                return false;
+            }
+
+            for (int i = 0; i < over.length; ++i) {
+                boolean matched = false;
+
+                for (int j = 0; j < imageOver.length && !matched; ++j) {
+                    matched = imageOver[j] == perm[over[i]] && imageLand[j] == perm[land[i]];
+                }
+
+                if (!matched) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the number of symmetries, including the identity.
+     *
+     * @return group order
+     */
+    public int size() {
+        return this.perms.length;
+    }
+
+    /**
+     * Maps a single-word pad mask through a symmetry.
+     *
+     * @param t symmetry index
+     * @param mask pad mask
+     * @return image mask
+     */
+    private long mapWord(int t, long mask) {
+
+        long image = 0;
+
+        for (int k = 0; mask != 0; ++k, mask >>>= 8) {
+            image |= this.byteImages[t][k * 256 + (int) (mask & 0xFF)];
+        }
+
+        return image;
+    }
+
+    /**
+     * Gets a fingerprint shared by a configuration and all of its images.
+     *
+     * @param config configuration
+     * @return smallest fingerprint over the configuration's images
+     */
+    public long canonicalFingerprint(HoppersBitConfig config) {
+
+        long best = Long.MAX_VALUE;
+        int padCount = this.layout.getPadCount();
+        int red = config.getRedPad();
+
+        for (int t = 0; t < this.perms.length; ++t) {
+            int redImage = red == -1 ? -1 : this.perms[t][red];
+            long fingerprint;
+
+            if (this.byteImages != null) {
+                long green = mapWord(t, config.getGreenWord(0));
+
+                fingerprint = padCount <= 57 ? green | (long) (redImage + 1) << padCount
+                        : HoppersBitConfig.mix(green * 31 + redImage);
+                // exact like HoppersWordConfig while the red pad fits above the mask
+            } else {
+                long[] green = new long[(padCount + 63) >>> 6];
+
+                for (int p = 0; p < padCount; ++p) {
+
+                    if (config.isGreen(p)) {
+                        green[this.perms[t][p] >>> 6] |= 1L << this.perms[t][p];
+                    }
+                }
+
+                fingerprint = redImage;
+
+                for (long word : green) {
+                    fingerprint = HoppersBitConfig.mix(fingerprint ^ word * 31);
+                }
+            }
+
+            best = Math.min(best, fingerprint);
+        }
+
+        return best;
+    }
+
+    /**
+     * Checks if one configuration is an image of another.
+     *
+     * @param a first configuration
+     * @param b second configuration
+     * @return whether some symmetry maps a onto b
+     */
+    public boolean equivalent(HoppersBitConfig a, HoppersBitConfig b) {
+
+        if (a.getGreenCount() != b.getGreenCount()) {
+            return false;
+        }
+
+        for (int[] perm : this.perms) {
+            boolean same = a.getRedPad() == -1 ? b.getRedPad() == -1
+                    : b.getRedPad() != -1 && perm[a.getRedPad()] == b.getRedPad();
+
+            for (int p = 0; same && p < perm.length; ++p) {
+
+                if (a.isGreen(p) && !b.isGreen(perm[p])) {
+                    same = false;
+                }
+            }
+
+            if (same) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,197 @@
+package puzzles.hoppers.model;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.NeighborVisitor;
+import puzzles.common.solver.ZobristTable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Single-word bitboard Hoppers configuration, for boards with up to 64 pads.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class HoppersWordConfig extends HoppersBitConfig {
+
+    /** Green frog pad mask */
+    private final long green;
+
+    /** Red frog pad mask */
+    private final long red;
+
+    /**
+     * HoppersWordConfig constructor from pad data.
+     *
+     * @param layout shared board layout
+     * @param green pads holding green frogs
+     * @param red pad holding the red frog (-1 if none)
+     */
+    public HoppersWordConfig(HoppersLayout layout, boolean[] green, int red) {
+
+        super(layout);
+
+        long greenMask = 0;
+
+        for (int p = 0; p < green.length; ++p) {
+
+            if (green[p]) {
+                greenMask |= 1L << p;
+            }
+        }
+
+        this.green = greenMask;
+        this.red = red == -1 ? 0 : 1L << red;
+    }
+
+    /**
+     * HoppersWordConfig constructor with masks.
+     *
+     * @param layout shared board layout
+     * @param green green frog pad mask
+     * @param red red frog pad mask
+     */
+    public HoppersWordConfig(HoppersLayout layout, long green, long red) {
+
+        super(layout);
+
+        this.green = green;
+        this.red = red;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSolution() {
+        return this.green == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachNeighbor(NeighborVisitor visitor) {
+
+        long frogs = this.green | this.red;
+        long empty = ~frogs;
+
+        for (long left = frogs; left != 0; left &= left - 1) {  // loops through every frog
+
+            int pad = Long.numberOfTrailingZeros(left);
+            long from = 1L << pad;
+
+            int[] over = this.layout.getOverPads(pad);
+            int[] land = this.layout.getLandPads(pad);
+
+            for (int i = 0; i < over.length; ++i) {
+
+                long overBit = 1L << over[i];
+                long landBit = 1L << land[i];
+
+                if ((this.green & overBit) != 0 && (empty & landBit) != 0) {
+
+                    long newGreen = from == this.red ? this.green ^ overBit : this.green ^ from ^ overBit ^ landBit;
+                    long newRed = from == this.red ? landBit : this.red;
+
+                    if (visitor.wants(fingerprint(newGreen, newRed))) {
+                        visitor.accept(new HoppersWordConfig(this.layout, newGreen, newRed));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<Configuration> getNeighbors() {
+
+        Collection<Configuration> neighbors = new ArrayList<>();
+        forEachNeighbor(neighbors::add);
+
+        return neighbors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isGreen(int pad) {
+        return (this.green & (1L << pad)) != 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRedPad() {
+        return this.red == 0 ? -1 : Long.numberOfTrailingZeros(this.red);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getGreenCount() {
+        return Long.bitCount(this.green);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getGreenWord(int word) {
+        return word == 0 ? this.green : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long fingerprint() {
+        return fingerprint(this.green, this.red);
+    }
+
+    /**
+     * Gets the fingerprint of a pair of masks without building a configuration.
+     *
+     * @param green green frog pad mask
+     * @param red red frog pad mask
+     * @return fingerprint
+     */
+    private long fingerprint(long green, long red) {
+
+        if (this.layout.getPadCount() <= 57) {
+            return green | (long) (red == 0 ? 0 : Long.numberOfTrailingZeros(red) + 1) << this.layout.getPadCount();
+            // exact encoding while the red pad index still fits above the green mask
+        }
+
+        return mix(green * 31 + red);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object other) {
+        boolean result = false;
+
+        if (other instanceof HoppersWordConfig) {
+            HoppersWordConfig otherWordConfig = (HoppersWordConfig) other;
+            result = this.green == otherWordConfig.green && this.red == otherWordConfig.red
+                    && this.layout == otherWordConfig.layout;
+        }
+
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return ZobristTable.fold(mix(this.green * 31 + this.red));
+    }
+}
@@ -27,9 +27,23 @@ public class HoppersPTUI implements Observer<HoppersModel, String> {
      * @throws IOException for error loading file
      */
     public HoppersPTUI(String fileName) throws IOException {
+        this(fileName, false, false);
+    }
+
+    /**
+     * HoppersPTUI constructor with retrograde hints.
+     *
+     * @param fileName file name to load
+     * @param retrograde whether hints come from a distance table built on load
+     * @param persistTables whether distance tables are saved next to puzzle files
+     * @throws IOException for error loading file
+     */
+    public HoppersPTUI(String fileName, boolean retrograde, boolean persistTables) throws IOException {
 
         this.model = new HoppersModel();
         this.model.addObserver(this);
+        this.model.setRetrograde(retrograde);
+        this.model.setPersistTables(persistTables);
         this.model.load(fileName, true);
 
     }
@@ -162,15 +176,55 @@ public class HoppersPTUI implements Observer<HoppersModel, String> {
      * @param args command line arguments
      */
     public static void main(String[] args) {
-        if (args.length != 1) {
+        boolean retrograde = false;
+        boolean persist = false;
+        boolean progress = false;
+        long hintLimit = 0;
+        long hintLatency = 0;
+        boolean valid = args.length >= 1;
+
+        for (int i = 1; i < args.length; ++i) {
+
+            if (args[i].equals("-retrograde")) {
+                retrograde = true;
+            } else if (args[i].equals("-persist")) {  // saved tables are only used for retrograde hints
+                retrograde = true;
+                persist = true;
+            } else if (args[i].equals("-progress")) {
+                progress = true;
+            } else if (args[i].startsWith("-hintlimit=")) {
+                hintLimit = Long.parseLong(args[i].substring(11));
+            } else if (args[i].equals("-anytime")) {
+                hintLatency = 50;
+            } else if (args[i].startsWith("-anytime=")) {
+                hintLatency = Long.parseLong(args[i].substring(9));
+            } else {
+                valid = false;
+            }
+        }
+
+        if (!valid) {
 
-            System.out.println("Usage: java HoppersPTUI filename");
+            System.out.println("Usage: java HoppersPTUI filename [-retrograde] [-persist] [-progress] [-hintlimit=ms] [-anytime[=ms]]");
 
         } else {
 
             try {
 
-                HoppersPTUI ptui = new HoppersPTUI(args[0]);
+                HoppersPTUI ptui = new HoppersPTUI(args[0], retrograde, persist);
+
+                ptui.model.setHintTimeLimit(hintLimit);
+                // optionally gives up on hint searches that run too long
+
+                ptui.model.setHintLatency(hintLatency);
+                // optionally answers hints within a latency, 50 ms by default
+
+                if (progress) {
+                    ptui.model.addSolverListener((depth, width, stats) ->
+                            System.out.println("Level " + depth + ": " + width + " configs"));
+                    // reports each BFS level of hint searches
+                }
+
                 ptui.inputLoop();
                 // starts PTUI loop
 
@@ -1,11 +1,25 @@
 package puzzles.hoppers.solver;
 
+import puzzles.common.solver.AStarSolver;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.ExternalSolver;
+import puzzles.common.solver.IDAStarSolver;
+import puzzles.common.solver.ParallelSolver;
 import puzzles.common.solver.Solver;
+import puzzles.hoppers.model.HoppersBitCodec;
+import puzzles.hoppers.model.HoppersBitConfig;
 import puzzles.hoppers.model.HoppersConfig;
+import puzzles.hoppers.model.HoppersDfsSolver;
+import puzzles.hoppers.model.HoppersFrogHeuristic;
+import puzzles.hoppers.model.HoppersInvariants;
+import puzzles.hoppers.model.HoppersRankedSolver;
+import puzzles.hoppers.model.HoppersSymmetricConfig;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 
 /**
  * Hoppers solver.
@@ -13,26 +27,180 @@ import java.util.ArrayList;
  * @author Max Milazzo (mam9563@rit.edu)
  */
 public class Hoppers {
+
+    /**
+     * Gets the bitboard representation of a configuration.
+     *
+     * @param config grid, bitboard or symmetric configuration
+     * @return bitboard configuration
+     */
+    private static HoppersBitConfig bitboard(Configuration config) {
+
+        if (config instanceof HoppersBitConfig) {
+            return (HoppersBitConfig) config;
+        }
+
+        if (config instanceof HoppersSymmetricConfig) {
+            return ((HoppersSymmetricConfig) config).getConfig();
+        }
+
+        return HoppersBitConfig.of((HoppersConfig) config);
+    }
+
+    /**
+     * Solves a puzzle with the solver selected by the command line options.
+     *
+     * @param puzzleSolver serial solver
+     * @param start starting configuration
+     * @param args command line arguments
+     * @return shortest path to end
+     */
+    private static Collection<Configuration> solve(Solver puzzleSolver, Configuration start, String[] args)
+            throws IOException {
+
+        for (String arg : args) {
+
+            if (arg.equals("-parallel") || arg.startsWith("-parallel=")) {
+
+                ParallelSolver parallelSolver = arg.equals("-parallel") ? new ParallelSolver()
+                        : new ParallelSolver(Integer.parseInt(arg.substring(10)));
+                // expands each level on the common fork/join pool or one with the given thread count
+
+                parallelSolver.setDeterministic(!Arrays.asList(args).contains("-shared"));
+                // optionally claims children in a shared lock-free visited set
+
+                return parallelSolver.findPath(start);
+            }
+
+            if (arg.equals("-astar")) {
+                return new AStarSolver<>(new HoppersFrogHeuristic()).findPath(start, true);
+                // expands configs in order of moves so far plus estimated moves left
+            }
+
+            if (arg.equals("-idastar")) {
+                return new IDAStarSolver<>(new HoppersFrogHeuristic()).findPath(start, true);
+                // iteratively deepens on the same estimate, keeping only the current path
+            }
+
+            if (arg.equals("-external") || arg.startsWith("-external=")) {
+
+                HoppersBitConfig bitStart = bitboard(start);
+                // records are packed from the bitboard representation
+
+                ExternalSolver<HoppersBitConfig> externalSolver = new ExternalSolver<>(new HoppersBitCodec(bitStart.getLayout()));
+                externalSolver.setDuplicateWindow(0);
+                // every jump removes a frog, so configs can never repeat across levels
+                externalSolver.setFullEnumeration(Arrays.asList(args).contains("-enumerate"));
+                // optionally expands every level instead of stopping at the solution level
+
+                if (arg.startsWith("-external=")) {
+                    externalSolver.setDirectory(Paths.get(arg.substring(10)));
+                }
+
+                return externalSolver.findPath(bitStart, true);
+            }
+
+            if (arg.equals("-ranked") || arg.startsWith("-ranked=")) {
+
+                HoppersRankedSolver rankedSolver = new HoppersRankedSolver();
+                rankedSolver.setFullEnumeration(Arrays.asList(args).contains("-enumerate"));
+                // optionally counts every reachable config instead of stopping at the solution level
+
+                if (arg.startsWith("-ranked=")) {
+                    rankedSolver.setDirectory(Paths.get(arg.substring(8)));
+                    // keeps the visited bitmap in a memory-mapped file there, otherwise the
+                    // heap is used unless the bitmap does not fit, which falls back to a temp file
+                }
+
+                return rankedSolver.findPath(bitboard(start), true);
+            }
+
+            if (arg.equals("-dfs")) {
+
+                HoppersDfsSolver dfsSolver = new HoppersDfsSolver();
+                dfsSolver.setSymmetry(start instanceof HoppersSymmetricConfig);
+                // shares dead positions between mirror images when symmetry is on
+
+                dfsSolver.setPruning(Arrays.asList(args).contains("-invariants"));
+                // optionally cuts off positions with a green frog that can never be jumped
+
+                return dfsSolver.findPath(bitboard(start), true);
+                // every solution has the same length, so the first one found is a shortest one
+            }
+        }
+
+        return puzzleSolver.findPath(start);
+    }
+
     public static void main(String[] args) {
-        if (args.length != 1) {
+        if (args.length < 1) {
 
-            System.out.println("Usage: java Hoppers filename");
+            System.out.println("Usage: java Hoppers filename [-bitboard | -symmetry] [-external[=dir] [-enumerate] | -ranked[=dir] [-enumerate] | -dfs | -parallel[=threads] [-shared] | -astar | -idastar] [-invariants] [-earlygoal] [-hashstats] [-stats] [-progress]");
 
         } else {
 
             Solver puzzleSolver = new Solver();
             // creates Solver instance
 
+            puzzleSolver.setHashDiagnostics(Arrays.asList(args).contains("-hashstats"));
+            // optionally reports visited set hash distribution
+
+            puzzleSolver.setEarlyGoalTest(Arrays.asList(args).contains("-earlygoal"));
+            // optionally stops as soon as a solution is generated
+
+            puzzleSolver.setDetailedStats(Arrays.asList(args).contains("-stats"));
+            // optionally reports expansions, frontier size, timing and memory
+
+            puzzleSolver.setPuzzleFile(args[0]);
+            // names the puzzle in flight recorder events
+
+            if (Arrays.asList(args).contains("-progress")) {
+                puzzleSolver.addListener((depth, width, stats) ->
+                        System.out.println("Level " + depth + ": " + width + " configs"));
+                // reports each BFS level as it starts
+            }
+
             try {
 
-                Configuration start = new HoppersConfig(args[0]);
+                HoppersConfig config = new HoppersConfig(args[0]);
+                Configuration start = config;
                 // initializes start configuration
 
+                if (Arrays.asList(args).contains("-bitboard")) {
+                    start = HoppersBitConfig.of(config);
+                    // solves on the bitboard representation instead of the grid
+                }
+
+                if (Arrays.asList(args).contains("-symmetry")) {
+                    HoppersSymmetricConfig symmetricStart = new HoppersSymmetricConfig(HoppersBitConfig.of(config));
+                    start = symmetricStart;
+                    // visits mirror images of a configuration only once
+
+                    System.out.println("Symmetries: " + symmetricStart.getSymmetry().size());
+                }
+
                 System.out.println("File: " + args[0]);
                 System.out.println(start);
 
-                ArrayList<Configuration> path = (ArrayList<Configuration>) puzzleSolver.findPath(start);
-                // uses BFS Solver class to solve puzzle
+                ArrayList<Configuration> path = new ArrayList<>();
+
+                if (Arrays.asList(args).contains("-invariants")) {
+                    HoppersInvariants invariants = HoppersInvariants.forLayout(bitboard(start).getLayout());
+                    String reason = invariants.unsolvableReason(bitboard(start));
+
+                    if (reason != null) {
+                        System.out.println("Unsolvable: " + reason);
+                        // proven before searching, so the search is skipped
+                    } else {
+                        puzzleSolver.setPruning(next -> invariants.isDead(bitboard(next)));
+                        path = (ArrayList<Configuration>) solve(puzzleSolver, start, args);
+                        // cuts off configurations with a green frog that can never be jumped
+                    }
+
+                } else {
+                    path = (ArrayList<Configuration>) solve(puzzleSolver, start, args);
+                    // uses the selected solver to solve puzzle
+                }
 
                 if (path.size() > 0) {
 
@@ -1,6 +1,7 @@
 package puzzles.jam.gui;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -26,6 +27,9 @@ import java.util.HashMap;
  */
 public class JamGUI extends Application  implements Observer<JamModel, String>  {
 
+    /** Time a hint answers in, in milliseconds */
+    private final static long HINT_LATENCY = 50;
+
     /** The resources directory is located directly underneath the gui package */
     private final static String RESOURCES_DIR = "resources/";
     // not used in this implementation, but kept if resources add in future
@@ -79,6 +83,24 @@ public class JamGUI extends Application  implements Observer<JamModel, String>
 
         this.model = new JamModel();
         this.model.addObserver(this);
+        this.model.setCallbackExecutor(Platform::runLater);
+        // background hints update the view on the JavaFX thread
+
+        this.model.setHintLatency(HINT_LATENCY);
+        // answers every hint within the latency, proven optimal or not
+
+        this.model.addSolverListener((depth, width, stats) -> {
+            long seen = stats.getUnique();
+
+            Platform.runLater(() -> {
+
+                if (this.model.isHintPending()) {  // skips progress of a search cancelled since
+                    this.info.setText("Searching depth " + depth + " (" + seen + " configs)");
+                }
+            });
+        });
+        // shows hint search progress until the result arrives
+
         this.model.load(filename, true);
         // initializes the model
 
@@ -148,8 +170,8 @@ public class JamGUI extends Application  implements Observer<JamModel, String>
         Button load = new Button("Load");
         // creates control buttons
 
-        hint.setOnAction(event -> model.hint());
-        // sets hint button event
+        hint.setOnAction(event -> model.hintAsync());
+        // sets hint button event, solving off the JavaFX thread
 
         reset.setOnAction(event -> {
             try {
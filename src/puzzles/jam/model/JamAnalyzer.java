@@ -0,0 +1,201 @@
+package puzzles.jam.model;
+
+import java.util.Arrays;
+
+/**
+ * Static Jam board analyzer.
+ * Bounds the lane positions every car can ever reach, starting from each
+ * car's whole lane and shrinking to a fixpoint. A car whose bounds leave a
+ * cell covered at every reachable position makes that cell a permanent wall
+ * for the others, and cars sharing a lane can never pass each other. The
+ * bounds only ever shrink by cells no car can really reach, so a car bounded
+ * to one position is pinned for good and an 'X' car bounded short of the exit
+ * can never solve the board.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class JamAnalyzer {
+
+    /** Puzzle descriptor */
+    private final JamLayout layout;
+
+    /** Lowest reachable lane position of each car */
+    private final int[] low;
+
+    /** Highest reachable lane position of each car */
+    private final int[] high;
+
+    /**
+     * JamAnalyzer constructor.
+     *
+     * @param start starting configuration
+     */
+    public JamAnalyzer(JamCarConfig start) {
+
+        this.layout = start.getLayout();
+
+        int cars = this.layout.getCarCount();
+        this.low = new int[cars];
+        this.high = new int[cars];
+
+        for (int car = 0; car < cars; ++car) {
+            this.high[car] = this.layout.getLaneSize(car) - 1;
+        }
+
+        int[] walls = new int[this.layout.getNumRows() * this.layout.getNumCols()];
+        boolean changed = true;
+
+        while (changed) {  // runs until no bound shrinks
+            changed = false;
+
+            Arrays.fill(walls, -1);
+
+            for (int car = 0; car < cars; ++car) {
+
+                for (int k = this.high[car]; k < this.low[car] + this.layout.getLength(car); ++k) {
+                    walls[this.layout.cellOf(car, k, 0)] = car;
+                    // covered wherever in its bounds the car is
+                }
+            }
+
+            for (int car = 0; car < cars; ++car) {
+
+                int position = start.getPosition(car);
+                int length = this.layout.getLength(car);
+                int lo = position;
+                int hi = position;
+
+                while (lo > this.low[car] && !isWall(walls, car, lo - 1)) {
+                    lo--;
+                }
+
+                while (hi < this.high[car] && !isWall(walls, car, hi + length)) {
+                    hi++;
+                }
+
+                for (int other = 0; other < cars; ++other) {  // same-lane cars keep their order
+
+                    if (other != car && this.layout.isHorizontal(other) == this.layout.isHorizontal(car)
+                            && this.layout.getLane(other) == this.layout.getLane(car)) {
+
+                        if (start.getPosition(other) < position) {
+                            lo = Math.max(lo, this.low[other] + this.layout.getLength(other));
+                        } else {
+                            hi = Math.min(hi, this.high[other] - length);
+                        }
+                    }
+                }
+
+                if (lo != this.low[car] || hi != this.high[car]) {
+                    this.low[car] = lo;
+                    this.high[car] = hi;
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Is a cell along a car's lane a wall of some other car?
+     *
+     * @param walls car covering each cell for good (-1 for none)
+     * @param car car index
+     * @param laneCell cell index along the car's lane
+     * @return if the car can never enter the cell
+     */
+    private boolean isWall(int[] walls, int car, int laneCell) {
+        int owner = walls[this.layout.cellOf(car, laneCell, 0)];
+        return owner != -1 && owner != car;
+    }
+
+    /**
+     * Checks if the board can be proven to have no solution.
+     *
+     * @return reason no solution exists, or null if none could be proven
+     */
+    public String unsolvableReason() {
+
+        int goal = this.layout.getGoalCar();
+
+        if (goal == -1) {
+            return "no X car";
+        }
+
+        if (!this.layout.isHorizontal(goal)) {
+            return this.layout.getLane(goal) == this.layout.getNumCols() - 1 ? null
+                    : "X car can never reach the exit column";
+            // vertical cars never change column
+        }
+
+        if (this.high[goal] < this.layout.getLaneSize(goal) - 1) {
+            return "X car is blocked from the exit";
+        }
+
+        return null;
+    }
+
+    /**
+     * Is a car pinned at its starting position for good?
+     *
+     * @param car car index
+     * @return if the car can never move
+     */
+    public boolean isLocked(int car) {
+        return this.low[car] == this.high[car];
+    }
+
+    /**
+     * Gets the pinned cars.
+     *
+     * @return whether each car can never move, by car index
+     */
+    public boolean[] getLockedCars() {
+
+        boolean[] locked = new boolean[this.low.length];
+
+        for (int car = 0; car < locked.length; ++car) {
+            locked[car] = isLocked(car);
+        }
+
+        return locked;
+    }
+
+    /**
+     * Gets number of pinned cars.
+     *
+     * @return locked car count
+     */
+    public int getLockedCount() {
+
+        int count = 0;
+
+        for (int car = 0; car < this.low.length; ++car) {
+
+            if (isLocked(car)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Gets the lowest lane position a car can ever reach.
+     *
+     * @param car car index
+     * @return lower position bound
+     */
+    public int getLowBound(int car) {
+        return this.low[car];
+    }
+
+    /**
+     * Gets the highest lane position a car can ever reach.
+     *
+     * @param car car index
+     * @return upper position bound
+     */
+    public int getHighBound(int car) {
+        return this.high[car];
+    }
+}
@@ -0,0 +1,114 @@
+package puzzles.jam.model;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.Heuristic;
+
+import java.util.HashSet;
+
+/**
+ * Blocker count heuristic for Jam.
+ * The goal car needs one move per cell left to the exit, and every car
+ * standing between it and the exit needs at least one move of its own,
+ * so their sum never overestimates. Works on both the grid and car-vector
+ * representations.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class JamBlockerHeuristic implements Heuristic<Configuration> {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int estimate(Configuration config) {
+
+        if (config instanceof JamCarConfig) {
+            return estimate((JamCarConfig) config);
+        }
+
+        return estimate((JamConfig) config);
+    }
+
+    /**
+     * Estimates moves left on a car-vector configuration.
+     *
+     * @param config car-vector configuration
+     * @return admissible lower bound on the moves to a solution
+     */
+    private int estimate(JamCarConfig config) {
+
+        JamLayout layout = config.getLayout();
+        int goal = layout.getGoalCar();
+
+        if (goal == -1 || !layout.isHorizontal(goal)) {
+            return 0;
+            // a vertical goal car can never change column, so there is nothing to count
+        }
+
+        int numCols = layout.getNumCols();
+        int end = config.getPosition(goal) + layout.getLength(goal);
+
+        int blockers = 0;
+
+        for (int car = 0; car < layout.getCarCount(); ++car) {  // counts cars crossing the exit path
+
+            if (car != goal) {
+
+                for (int k = 0; k < layout.getLength(car); ++k) {
+                    int cell = layout.cellOf(car, config.getPosition(car), k);
+
+                    if (cell / numCols == layout.getLane(goal) && cell % numCols >= end) {
+                        blockers++;
+                        break;
+                    }
+                }
+            }
+        }
+
+        return numCols - end + blockers;
+    }
+
+    /**
+     * Estimates moves left on a grid configuration.
+     *
+     * @param config grid configuration
+     * @return admissible lower bound on the moves to a solution
+     */
+    private int estimate(JamConfig config) {
+
+        Character[][] puzzle = config.getPuzzle();
+
+        for (int i = 0; i < config.getNumRows(); ++i) {
+
+            int end = -1;
+
+            for (int j = config.getNumCols() - 1; j >= 0 && end == -1; --j) {  // finds the goal car's front
+
+                if (puzzle[i][j].equals('X')) {
+                    end = j + 1;
+                }
+            }
+
+            if (end != -1) {
+
+                if (end < 2 || !puzzle[i][end - 2].equals('X')) {
+                    return 0;
+                    // vertical goal car
+                }
+
+                HashSet<Character> blockers = new HashSet<>();
+
+                for (int j = end; j < config.getNumCols(); ++j) {
+
+                    if (!puzzle[i][j].equals('.')) {
+                        blockers.add(puzzle[i][j]);
+                    }
+                }
+
+                return config.getNumCols() - end + blockers.size();
+            }
+        }
+
+        return 0;
+    }
+}
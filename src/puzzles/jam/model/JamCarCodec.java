@@ -0,0 +1,56 @@
+package puzzles.jam.model;
+
+import puzzles.common.solver.StateCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Packs car-vector Jam configurations as one position byte per car.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class JamCarCodec implements StateCodec<JamCarConfig> {
+
+    /** Shared puzzle descriptor */
+    private final JamLayout layout;
+
+    /**
+     * JamCarCodec constructor.
+     *
+     * @param layout puzzle descriptor every encoded configuration shares
+     */
+    public JamCarCodec(JamLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int stateSize() {
+        return this.layout.getCarCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void encode(JamCarConfig config, ByteBuffer buffer) {
+
+        for (int car = 0; car < this.layout.getCarCount(); ++car) {
+            buffer.put((byte) config.getPosition(car));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JamCarConfig decode(ByteBuffer buffer) {
+
+        byte[] positions = new byte[this.layout.getCarCount()];
+        buffer.get(positions);
+
+        return new JamCarConfig(this.layout, positions);
+    }
+}
@@ -0,0 +1,462 @@
+package puzzles.jam.model;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.NeighborVisitor;
+import puzzles.common.solver.StreamingConfiguration;
+import puzzles.common.solver.ZobristTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Car-vector Jam configuration.
+ * Stores one byte of lane position per car on top of a shared JamLayout, and
+ * derives board occupancy as a bitmask, so neighbors are generated without
+ * grid copies.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class JamCarConfig implements StreamingConfiguration {
+
+    /** Shared puzzle descriptor */
+    private final JamLayout layout;
+
+    /** Lane position of each car's first cell */
+    private final byte[] positions;
+
+    /** Position-sensitive hash of the car positions */
+    private final long hash;
+
+    /** Cars pinned for good, skipped by neighbor generation (null for none) */
+    private final boolean[] locked;
+
+    /** Occupied cell mask words, indexed by flattened cell */
+    private final long[] occupied;
+
+    /** Car indices ordered by first cell, row-major (byte positions keep car counts within a short) */
+    private final short[] order;
+
+    /**
+     * JamCarConfig constructor.
+     *
+     * @param layout shared puzzle descriptor
+     * @param positions car lane positions
+     */
+    public JamCarConfig(JamLayout layout, byte[] positions) {
+
+        this.layout = layout;
+        this.positions = positions;
+
+        long fullHash = 0;
+
+        for (int car = 0; car < positions.length; ++car) {
+            fullHash ^= layout.key(car, positions[car]);
+        }
+
+        this.hash = fullHash;
+        this.locked = null;
+        this.occupied = occupancy();
+        this.order = boardOrder();
+    }
+
+    /**
+     * JamCarConfig constructor for derived neighbors.
+     *
+     * @param layout shared puzzle descriptor
+     * @param positions car lane positions
+     * @param hash hash updated incrementally from the parent hash
+     * @param locked cars pinned for good (null for none)
+     * @param occupied occupancy mask updated incrementally from the parent mask
+     * @param order board order updated incrementally from the parent order
+     */
+    private JamCarConfig(JamLayout layout, byte[] positions, long hash, boolean[] locked,
+                         long[] occupied, short[] order) {
+
+        this.layout = layout;
+        this.positions = positions;
+        this.hash = hash;
+        this.locked = locked;
+        this.occupied = occupied;
+        this.order = order;
+    }
+
+    /**
+     * Builds the car-vector equivalent of a grid configuration.
+     *
+     * @param config grid configuration
+     * @return car-vector configuration
+     */
+    public static JamCarConfig of(JamConfig config) {
+
+        int numRows = config.getNumRows();
+        int numCols = config.getNumCols();
+        Character[][] puzzle = config.getPuzzle();
+
+        ArrayList<Character> seen = new ArrayList<>();
+        char[] names = new char[numRows * numCols];
+        boolean[] horizontal = new boolean[names.length];
+        int[] lengths = new int[names.length];
+        int[] lanes = new int[names.length];
+        byte[] positions = new byte[names.length];
+        int cars = 0;
+
+        for (int i = 0; i < numRows; ++i) {
+
+            for (int j = 0; j < numCols; ++j) {
+
+                Character carChar = puzzle[i][j];
+
+                if (!carChar.equals('.') && !seen.contains(carChar)) {  // first cell of each car
+
+                    seen.add(carChar);
+
+                    boolean isHorizontal = j + 1 < numCols && puzzle[i][j + 1].equals(carChar);
+                    int length = 1;
+
+                    while (isHorizontal ? j + length < numCols && puzzle[i][j + length].equals(carChar)
+                            : i + length < numRows && puzzle[i + length][j].equals(carChar)) {
+                        length++;
+                    }
+
+                    names[cars] = carChar;
+                    horizontal[cars] = isHorizontal;
+                    lengths[cars] = length;
+                    lanes[cars] = isHorizontal ? i : j;
+                    positions[cars] = (byte) (isHorizontal ? j : i);
+                    cars++;
+                }
+            }
+        }
+
+        JamLayout layout = JamLayout.forPuzzle(numRows, numCols, Arrays.copyOf(names, cars),
+                Arrays.copyOf(horizontal, cars), Arrays.copyOf(lengths, cars), Arrays.copyOf(lanes, cars));
+
+        return new JamCarConfig(layout, Arrays.copyOf(positions, cars));
+    }
+
+    /**
+     * Builds the car configuration of a grid configuration over a fixed layout.
+     * Cars keep the layout's numbering however they have moved since, so
+     * configurations built this way are comparable with ones from the start.
+     *
+     * @param config grid configuration
+     * @param layout layout of the same puzzle
+     * @return car configuration
+     */
+    public static JamCarConfig of(JamConfig config, JamLayout layout) {
+
+        Character[][] puzzle = config.getPuzzle();
+        byte[] positions = new byte[layout.getCarCount()];
+
+        for (int car = 0; car < positions.length; ++car) {
+
+            int position = 0;
+
+            while (!puzzle[layout.isHorizontal(car) ? layout.getLane(car) : position]
+                    [layout.isHorizontal(car) ? position : layout.getLane(car)].equals(layout.getName(car))) {
+                position++;  // first cell of the car along its lane
+            }
+
+            positions[car] = (byte) position;
+        }
+
+        return new JamCarConfig(layout, positions);
+    }
+
+    /**
+     * Gets this configuration with pinned cars marked, so it and every
+     * configuration derived from it skip them when generating neighbors.
+     * Neighbors are unchanged as long as the cars really can never move
+     * (see JamAnalyzer).
+     *
+     * @param locked whether each car is pinned, by car index
+     * @return configuration with the same car positions
+     */
+    public JamCarConfig withLockedCars(boolean[] locked) {
+        return new JamCarConfig(this.layout, this.positions, this.hash, locked, this.occupied, this.order);
+    }
+
+    /**
+     * Builds occupancy bitmask of the board.
+     *
+     * @return occupied cell mask words, indexed by flattened cell
+     */
+    public long[] occupancy() {
+
+        long[] occupied = new long[(this.layout.getNumRows() * this.layout.getNumCols() + 63) >>> 6];
+
+        for (int car = 0; car < this.positions.length; ++car) {
+
+            for (int k = 0; k < this.layout.getLength(car); ++k) {
+
+                int cell = this.layout.cellOf(car, this.positions[car], k);
+                occupied[cell >>> 6] |= 1L << cell;
+            }
+        }
+
+        return occupied;
+    }
+
+    /**
+     * Is a cell set in an occupancy mask?
+     *
+     * @param occupied occupancy mask words
+     * @param cell flattened cell index
+     * @return if cell is occupied
+     */
+    private static boolean occupied(long[] occupied, int cell) {
+        return (occupied[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Orders cars by their first cell, row-major.
+     * Matches the order JamConfig discovers cars in, so both representations
+     * produce the same BFS paths. Only built for configurations made from
+     * scratch, neighbors update their parent's order.
+     *
+     * @return car indices in board order
+     */
+    private short[] boardOrder() {
+
+        short[] order = new short[this.positions.length];
+        int[] anchors = new int[this.positions.length];
+
+        for (int car = 0; car < order.length; ++car) {
+
+            int anchor = this.layout.cellOf(car, this.positions[car], 0);
+            int k = car;
+
+            while (k > 0 && anchors[k - 1] > anchor) {  // insertion sort, car counts are small
+                anchors[k] = anchors[k - 1];
+                order[k] = order[k - 1];
+                k--;
+            }
+
+            anchors[k] = anchor;
+            order[k] = (short) car;
+        }
+
+        return order;
+    }
+
+    /**
+     * Builds a neighbor with one car moved one cell.
+     *
+     * @param car car index
+     * @param step -1 or 1
+     * @return neighbor configuration
+     */
+    private JamCarConfig shifted(int car, int step) {
+
+        byte[] newPositions = this.positions.clone();
+        newPositions[car] += step;
+
+        int start = this.positions[car];
+        int end = start + this.layout.getLength(car) - 1;
+        long[] newOccupied = this.occupied.clone();
+        int vacated = this.layout.cellOf(car, step < 0 ? end : start, 0);
+        int entered = this.layout.cellOf(car, step < 0 ? start : end, step);
+        newOccupied[vacated >>> 6] &= ~(1L << vacated);
+        newOccupied[entered >>> 6] |= 1L << entered;
+        // only the cells at either end of the moved car change
+
+        short[] newOrder = this.order;
+
+        if (!this.layout.isHorizontal(car)) {
+            newOrder = reordered(newPositions, car, step);
+            // a horizontal car's first cell moves to an empty or its own cell, so no
+            // other first cell lies in between and the order is shared unchanged
+        }
+
+        return new JamCarConfig(this.layout, newPositions, shiftedHash(car, step), this.locked, newOccupied, newOrder);
+    }
+
+    /**
+     * Gets the board order after a vertical car moved one cell, by moving it
+     * past the cars whose first cells it crossed.
+     *
+     * @param newPositions car positions after the move
+     * @param car car index
+     * @param step -1 or 1
+     * @return car indices in board order
+     */
+    private short[] reordered(byte[] newPositions, int car, int step) {
+
+        short[] newOrder = this.order.clone();
+        int anchor = this.layout.cellOf(car, newPositions[car], 0);
+        int k = 0;
+
+        while (newOrder[k] != car) {
+            k++;
+        }
+
+        while (k + step >= 0 && k + step < newOrder.length
+                && (this.layout.cellOf(newOrder[k + step], newPositions[newOrder[k + step]], 0) > anchor) == (step < 0)) {
+            newOrder[k] = newOrder[k + step];
+            k += step;
+        }
+
+        newOrder[k] = (short) car;
+
+        return newOrder;
+    }
+
+    /**
+     * Gets the hash of a neighbor with one car moved one cell, without building it.
+     *
+     * @param car car index
+     * @param step -1 or 1
+     * @return neighbor hash
+     */
+    private long shiftedHash(int car, int step) {
+        return this.hash ^ this.layout.key(car, this.positions[car]) ^ this.layout.key(car, this.positions[car] + step);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSolution() {
+
+        int goal = this.layout.getGoalCar();
+
+        if (goal == -1) {
+            return false;
+        }
+
+        if (this.layout.isHorizontal(goal)) {
+            return this.positions[goal] + this.layout.getLength(goal) == this.layout.getNumCols();
+        } else {
+            return this.layout.getLane(goal) == this.layout.getNumCols() - 1;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachNeighbor(NeighborVisitor visitor) {
+
+        for (int car : this.order) {
+
+            if (this.locked != null && this.locked[car]) {
+                continue;
+                // pinned cars have no moves in any reachable configuration
+            }
+
+            int start = this.positions[car];
+            int end = start + this.layout.getLength(car) - 1;
+
+            if (start > 0 && !occupied(this.occupied, this.layout.cellOf(car, start, -1))
+                    && visitor.wants(shiftedHash(car, -1))) {
+                visitor.accept(shifted(car, -1));
+                // negative direction movement
+            }
+
+            if (start + 1 < this.layout.getLaneSize(car)
+                    && !occupied(this.occupied, this.layout.cellOf(car, end, 1))
+                    && visitor.wants(shiftedHash(car, 1))) {
+                visitor.accept(shifted(car, 1));
+                // positive direction movement
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<Configuration> getNeighbors() {
+
+        Collection<Configuration> neighbors = new ArrayList<>();
+        forEachNeighbor(neighbors::add);
+
+        return neighbors;
+    }
+
+    /**
+     * Converts this configuration back to a grid configuration.
+     *
+     * @return grid configuration
+     */
+    public JamConfig toConfig() {
+
+        int numCols = this.layout.getNumCols();
+        Character[][] puzzle = new Character[this.layout.getNumRows()][numCols];
+
+        for (Character[] row : puzzle) {
+            Arrays.fill(row, '.');
+        }
+
+        for (int car = 0; car < this.positions.length; ++car) {
+
+            for (int k = 0; k < this.layout.getLength(car); ++k) {
+
+                int cell = this.layout.cellOf(car, this.positions[car], k);
+                puzzle[cell / numCols][cell % numCols] = this.layout.getName(car);
+            }
+        }
+
+        return new JamConfig(this.layout.getNumRows(), numCols, puzzle);
+    }
+
+    /**
+     * Gets car lane position.
+     *
+     * @param car car index
+     * @return lane position of the car's first cell
+     */
+    public int getPosition(int car) {
+        return this.positions[car];
+    }
+
+    /**
+     * Gets puzzle descriptor.
+     *
+     * @return shared layout
+     */
+    public JamLayout getLayout() {
+        return this.layout;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long fingerprint() {
+        return this.hash;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object other) {
+        boolean result = false;
+
+        if (other instanceof JamCarConfig) {
+            JamCarConfig otherCarConfig = (JamCarConfig) other;
+            result = this.hash == otherCarConfig.hash && this.layout == otherCarConfig.layout
+                    && Arrays.equals(this.positions, otherCarConfig.positions);
+        }
+
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return ZobristTable.fold(this.hash);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return toConfig().toString();
+    }
+}
@@ -1,6 +1,9 @@
 package puzzles.jam.model;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.NeighborVisitor;
+import puzzles.common.solver.StreamingConfiguration;
+import puzzles.common.solver.ZobristTable;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
@@ -13,7 +16,7 @@ import java.util.Collection;
  *
  * @author Max Milazzo (mam9563@rit.edu)
  */
-public class JamConfig implements Configuration {
+public class JamConfig implements StreamingConfiguration {
 
     /** Number of rows in configuration */
    private final int numRows;
@@ -24,6 +27,15 @@ public class JamConfig implements Configuration {
     /** Main puzzle */
    private final Character[][] puzzle;
 
+    /** Number of distinct car characters given Zobrist keys */
+   private static final int CAR_KEYS = 128;
+
+    /** Zobrist keys shared by every configuration of this board */
+   private final ZobristTable zobrist;
+
+    /** Position-sensitive hash of the cars on the board */
+   private long hash;
+
     /**
      * Jam configuration constructor from file.
      *
@@ -88,6 +100,9 @@ public class JamConfig implements Configuration {
                 }
             }
         }
+
+        this.zobrist = ZobristTable.forBoard(this.numRows, this.numCols, CAR_KEYS);
+        this.hash = fullHash();
     }
 
     /**
@@ -102,9 +117,62 @@ public class JamConfig implements Configuration {
         this.numRows = numRows;
         this.numCols = numCols;
         this.puzzle = puzzle;
+        this.zobrist = ZobristTable.forBoard(numRows, numCols, CAR_KEYS);
+        this.hash = fullHash();
 
     }
 
+    /**
+     * Jam configuration constructor for derived neighbors.
+     *
+     * @param parent configuration the neighbor was derived from
+     * @param puzzle neighbor puzzle grid
+     * @param hash neighbor hash, updated incrementally from the parent hash
+     */
+    private JamConfig(JamConfig parent, Character[][] puzzle, long hash) {
+
+        this.numRows = parent.numRows;
+        this.numCols = parent.numCols;
+        this.puzzle = puzzle;
+        this.zobrist = parent.zobrist;
+        this.hash = hash;
+
+    }
+
+    /**
+     * Gets the Zobrist key of a car on a cell.
+     *
+     * @param row cell row
+     * @param col cell column
+     * @param carChar car character
+     * @return car key
+     */
+    private long carKey(int row, int col, char carChar) {
+        return this.zobrist.key(row * this.numCols + col, carChar % CAR_KEYS);
+    }
+
+    /**
+     * Computes the hash of the whole grid from scratch.
+     *
+     * @return grid hash
+     */
+    private long fullHash() {
+
+        long fullHash = 0;
+
+        for (int i = 0; i < this.numRows; ++i) {
+
+            for (int j = 0; j < this.numCols; ++j) {
+
+                if (!this.puzzle[i][j].equals('.')) {
+                    fullHash ^= carKey(i, j, this.puzzle[i][j]);
+                }
+            }
+        }
+
+        return fullHash;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -122,26 +190,31 @@ public class JamConfig implements Configuration {
     }
 
     /**
-     * Moves a single car in neighbor generation process.
+     * Creates a puzzle grid copy to hold a neighbor configuration.
      *
-     * @param row car row
-     * @param col car column
-     * @param carChar car character
-     * @return neighbor configurations for a specific car
+     * @return puzzle grid copy
      */
-    private Collection<Configuration> moveCar(int row, int col, Character carChar) {
+    private Character[][] copyPuzzle() {
 
-        Collection<Configuration> carMovements = new ArrayList<>();
-        Character[][] newPuzzle1 = new Character[this.numRows][this.numCols];
-        Character[][] newPuzzle2 = new Character[this.numRows][this.numCols];
+        Character[][] newPuzzle = new Character[this.numRows][this.numCols];
 
         for (int m = 0; m < this.numRows; ++m) {
+            System.arraycopy(this.puzzle[m], 0, newPuzzle[m], 0, this.numCols);
+        }
 
-            System.arraycopy(this.puzzle[m], 0, newPuzzle1[m], 0, this.numCols);
-            System.arraycopy(this.puzzle[m], 0, newPuzzle2[m], 0, this.numCols);
-            // creates new puzzle grid copies to hold neighbor configurations
+        return newPuzzle;
+    }
 
-        }
+    /**
+     * Moves a single car in neighbor generation process.
+     * Grids are only copied for neighbors the visitor wants.
+     *
+     * @param row car row
+     * @param col car column
+     * @param carChar car character
+     * @param visitor neighbor callback
+     */
+    private void moveCar(int row, int col, Character carChar, NeighborVisitor visitor) {
 
         if (row + 1 < this.numRows) {
 
@@ -173,24 +246,30 @@ public class JamConfig implements Configuration {
 
                 if (row - 1 >= 0) {  // negative direction movement
 
-                    if (this.puzzle[row - 1][col].equals('.')) {
+                    long newHash = this.hash ^ carKey(row - 1, col, carChar) ^ carKey(endRow, col, carChar);
+
+                    if (this.puzzle[row - 1][col].equals('.') && visitor.wants(newHash)) {
 
-                        newPuzzle1[row - 1][col] = carChar;
-                        newPuzzle1[endRow][col] = '.';
+                        Character[][] newPuzzle = copyPuzzle();
+                        newPuzzle[row - 1][col] = carChar;
+                        newPuzzle[endRow][col] = '.';
 
-                        carMovements.add(new JamConfig(this.numRows, this.numCols, newPuzzle1));
+                        visitor.accept(new JamConfig(this, newPuzzle, newHash));
 
                     }
                 }
 
                 if (endRow + 1 < this.numRows) {  // positive direction movement
 
-                    if (this.puzzle[endRow + 1][col].equals('.')) {
+                    long newHash = this.hash ^ carKey(endRow + 1, col, carChar) ^ carKey(row, col, carChar);
+
+                    if (this.puzzle[endRow + 1][col].equals('.') && visitor.wants(newHash)) {
 
-                        newPuzzle2[endRow + 1][col] = carChar;
-                        newPuzzle2[row][col] = '.';
+                        Character[][] newPuzzle = copyPuzzle();
+                        newPuzzle[endRow + 1][col] = carChar;
+                        newPuzzle[row][col] = '.';
 
-                        carMovements.add(new JamConfig(this.numRows, this.numCols, newPuzzle2));
+                        visitor.accept(new JamConfig(this, newPuzzle, newHash));
 
                     }
                 }
@@ -227,31 +306,35 @@ public class JamConfig implements Configuration {
 
                 if (col - 1 >= 0) {  // negative direction movement
 
-                    if (this.puzzle[row][col - 1].equals('.')) {
+                    long newHash = this.hash ^ carKey(row, col - 1, carChar) ^ carKey(row, endCol, carChar);
 
-                        newPuzzle1[row][col - 1] = carChar;
-                        newPuzzle1[row][endCol] = '.';
+                    if (this.puzzle[row][col - 1].equals('.') && visitor.wants(newHash)) {
 
-                        carMovements.add(new JamConfig(this.numRows, this.numCols, newPuzzle1));
+                        Character[][] newPuzzle = copyPuzzle();
+                        newPuzzle[row][col - 1] = carChar;
+                        newPuzzle[row][endCol] = '.';
+
+                        visitor.accept(new JamConfig(this, newPuzzle, newHash));
 
                     }
                 }
 
                 if (endCol + 1 < this.numCols) {  // positive direction movement
 
-                    if (this.puzzle[row][endCol + 1].equals('.')) {
+                    long newHash = this.hash ^ carKey(row, endCol + 1, carChar) ^ carKey(row, col, carChar);
+
+                    if (this.puzzle[row][endCol + 1].equals('.') && visitor.wants(newHash)) {
 
-                        newPuzzle2[row][endCol + 1] = carChar;
-                        newPuzzle2[row][col] = '.';
+                        Character[][] newPuzzle = copyPuzzle();
+                        newPuzzle[row][endCol + 1] = carChar;
+                        newPuzzle[row][col] = '.';
 
-                        carMovements.add(new JamConfig(this.numRows, this.numCols, newPuzzle2));
+                        visitor.accept(new JamConfig(this, newPuzzle, newHash));
 
                     }
                 }
             }
         }
-
-        return carMovements;
     }
 
 
@@ -259,9 +342,8 @@ public class JamConfig implements Configuration {
      * {@inheritDoc}
      */
     @Override
-    public Collection<Configuration> getNeighbors() {
+    public void forEachNeighbor(NeighborVisitor visitor) {
 
-        Collection<Configuration> neighbors = new ArrayList<>();
         ArrayList<Character> usedCars = new ArrayList<>();
 
         for (int i = 0; i < this.numRows; ++i) {
@@ -273,12 +355,22 @@ public class JamConfig implements Configuration {
 
                     usedCars.add(this.puzzle[i][j]);
 
-                    neighbors.addAll(moveCar(i , j, this.puzzle[i][j]));
+                    moveCar(i , j, this.puzzle[i][j], visitor);
                     // gets call neighbors for each car
 
                 }
             }
         }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<Configuration> getNeighbors() {
+
+        Collection<Configuration> neighbors = new ArrayList<>();
+        forEachNeighbor(neighbors::add);
 
         return neighbors;
     }
@@ -456,6 +548,7 @@ public class JamConfig implements Configuration {
 
                         this.puzzle[moveRow][moveCol] = carChar;
                         this.puzzle[startRow][startCol] = '.';
+                        this.hash ^= carKey(moveRow, moveCol, carChar) ^ carKey(startRow, startCol, carChar);
 
                         return true;
 
@@ -467,6 +560,7 @@ public class JamConfig implements Configuration {
 
                         this.puzzle[moveRow][moveCol] = carChar;
                         this.puzzle[endRow][startCol] = '.';
+                        this.hash ^= carKey(moveRow, moveCol, carChar) ^ carKey(endRow, startCol, carChar);
 
                         return true;
 
@@ -509,6 +603,7 @@ public class JamConfig implements Configuration {
 
                         this.puzzle[moveRow][moveCol] = carChar;
                         this.puzzle[startRow][startCol] = '.';
+                        this.hash ^= carKey(moveRow, moveCol, carChar) ^ carKey(startRow, startCol, carChar);
 
                         return true;
 
@@ -520,6 +615,7 @@ public class JamConfig implements Configuration {
 
                         this.puzzle[moveRow][moveCol] = carChar;
                         this.puzzle[startRow][endCol] = '.';
+                        this.hash ^= carKey(moveRow, moveCol, carChar) ^ carKey(startRow, endCol, carChar);
 
                         return true;
 
@@ -535,6 +631,14 @@ public class JamConfig implements Configuration {
 
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long fingerprint() {
+        return this.hash;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -545,6 +649,11 @@ public class JamConfig implements Configuration {
         if (other instanceof JamConfig) {
             JamConfig otherJamConfig = (JamConfig) other;
 
+            if (this.hash != otherJamConfig.hash) {
+                return false;
+            }
+            // differing hashes always mean differing grids
+
             for (int i = 0; i < this.numRows; ++i) {
 
                 for (int j = 0; j < this.numCols; ++j) {
@@ -567,19 +676,7 @@ public class JamConfig implements Configuration {
      */
     @Override
     public int hashCode() {
-
-        int hash = 0;
-
-        for (int i = 0; i < this.numRows; ++i) {
-
-            for (int j = 0; j < this.numCols; ++j) {
-
-                hash += this.puzzle[i][j].hashCode();
-
-            }
-        }
-
-        return hash;
+        return ZobristTable.fold(this.hash);
     }
 
     /**
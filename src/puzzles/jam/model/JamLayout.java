@@ -0,0 +1,215 @@
+package puzzles.jam.model;
+
+import puzzles.common.solver.ZobristTable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable Jam puzzle descriptor shared by car-vector configurations.
+ * Holds everything about a car that never changes while it slides: its name,
+ * orientation, length and the fixed lane (row or column) it moves along.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class JamLayout {
+
+    /** Layouts already built, keyed by puzzle */
+    private static final Map<String, JamLayout> LAYOUTS = new ConcurrentHashMap<>();
+
+    /** Number of rows in board */
+    private final int numRows;
+
+    /** Number of columns in board */
+    private final int numCols;
+
+    /** Car characters */
+    private final char[] names;
+
+    /** Whether each car moves horizontally */
+    private final boolean[] horizontal;
+
+    /** Length of each car */
+    private final int[] lengths;
+
+    /** Row of each horizontal car or column of each vertical car */
+    private final int[] lanes;
+
+    /** Index of the 'X' car (-1 if none) */
+    private final int goalCar;
+
+    /** Zobrist keys indexed by car and lane position */
+    private final ZobristTable zobrist;
+
+    /**
+     * JamLayout constructor.
+     *
+     * @param numRows board row count
+     * @param numCols board column count
+     * @param names car characters
+     * @param horizontal car orientations
+     * @param lengths car lengths
+     * @param lanes car lanes
+     */
+    private JamLayout(int numRows, int numCols, char[] names,
+                      boolean[] horizontal, int[] lengths, int[] lanes) {
+
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.names = names;
+        this.horizontal = horizontal;
+        this.lengths = lengths;
+        this.lanes = lanes;
+
+        int goal = -1;
+
+        for (int i = 0; i < names.length; ++i) {
+
+            if (names[i] == 'X') {
+                goal = i;
+            }
+        }
+
+        this.goalCar = goal;
+        this.zobrist = ZobristTable.forBoard(names.length, Math.max(numRows, numCols), 1);
+    }
+
+    /**
+     * Gets the shared layout for a puzzle.
+     *
+     * @param numRows board row count
+     * @param numCols board column count
+     * @param names car characters
+     * @param horizontal car orientations
+     * @param lengths car lengths
+     * @param lanes car lanes
+     * @return puzzle layout
+     */
+    public static JamLayout forPuzzle(int numRows, int numCols, char[] names,
+                                      boolean[] horizontal, int[] lengths, int[] lanes) {
+
+        StringBuilder key = new StringBuilder(numRows + "x" + numCols);
+
+        for (int i = 0; i < names.length; ++i) {
+            key.append(':').append(names[i]).append(horizontal[i] ? 'h' : 'v')
+                    .append(lengths[i]).append('@').append(lanes[i]);
+        }
+
+        return LAYOUTS.computeIfAbsent(key.toString(),
+                k -> new JamLayout(numRows, numCols, names, horizontal, lengths, lanes));
+    }
+
+    /**
+     * Gets row count.
+     *
+     * @return row number
+     */
+    public int getNumRows() {
+        return this.numRows;
+    }
+
+    /**
+     * Gets column count.
+     *
+     * @return column number
+     */
+    public int getNumCols() {
+        return this.numCols;
+    }
+
+    /**
+     * Gets car count.
+     *
+     * @return number of cars
+     */
+    public int getCarCount() {
+        return this.names.length;
+    }
+
+    /**
+     * Gets car character.
+     *
+     * @param car car index
+     * @return car character
+     */
+    public char getName(int car) {
+        return this.names[car];
+    }
+
+    /**
+     * Does car move horizontally?
+     *
+     * @param car car index
+     * @return if car is horizontal
+     */
+    public boolean isHorizontal(int car) {
+        return this.horizontal[car];
+    }
+
+    /**
+     * Gets car length.
+     *
+     * @param car car index
+     * @return car length
+     */
+    public int getLength(int car) {
+        return this.lengths[car];
+    }
+
+    /**
+     * Gets car lane.
+     *
+     * @param car car index
+     * @return row of a horizontal car or column of a vertical car
+     */
+    public int getLane(int car) {
+        return this.lanes[car];
+    }
+
+    /**
+     * Gets number of positions along a car's lane.
+     *
+     * @param car car index
+     * @return lane position count
+     */
+    public int getLaneSize(int car) {
+        return (this.horizontal[car] ? this.numCols : this.numRows) - this.lengths[car] + 1;
+    }
+
+    /**
+     * Gets goal car index.
+     *
+     * @return index of the 'X' car (-1 if none)
+     */
+    public int getGoalCar() {
+        return this.goalCar;
+    }
+
+    /**
+     * Gets flattened cell index of a car cell.
+     *
+     * @param car car index
+     * @param position car lane position
+     * @param offset cell offset from the car's first cell
+     * @return flattened cell index
+     */
+    public int cellOf(int car, int position, int offset) {
+
+        if (this.horizontal[car]) {
+            return this.lanes[car] * this.numCols + position + offset;
+        } else {
+            return (position + offset) * this.numCols + this.lanes[car];
+        }
+    }
+
+    /**
+     * Gets the Zobrist key of a car at a lane position.
+     *
+     * @param car car index
+     * @param position car lane position
+     * @return position key
+     */
+    public long key(int car, int position) {
+        return this.zobrist.key(car * Math.max(this.numRows, this.numCols) + position, 0);
+    }
+}
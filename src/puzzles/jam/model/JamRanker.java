@@ -0,0 +1,117 @@
+package puzzles.jam.model;
+
+import puzzles.common.solver.StateRanker;
+
+/**
+ * Mixed-radix ranking of Jam car positions.
+ * Each car contributes one digit, its lane position, so every assignment of
+ * positions (overlapping or not) has its own rank. Digits only span the
+ * positions JamAnalyzer proves a car can reach from the start, which drops
+ * pinned cars out of the product altogether.
+ *
+ * @author Max Milazzo (mam9563@rit.edu)
+ */
+public class JamRanker implements StateRanker<JamCarConfig> {
+
+    /** Puzzle descriptor */
+    private final JamLayout layout;
+
+    /** Lowest position of each car's digit */
+    private final int[] low;
+
+    /** Positions in each car's digit */
+    private final int[] radices;
+
+    /** Number of ranks */
+    private final long size;
+
+    /**
+     * JamRanker constructor over every lane position of every car.
+     *
+     * @param layout puzzle descriptor
+     */
+    public JamRanker(JamLayout layout) {
+        this(layout, null);
+    }
+
+    /**
+     * JamRanker constructor over the positions reachable from a start.
+     *
+     * @param start starting configuration
+     */
+    public JamRanker(JamCarConfig start) {
+        this(start.getLayout(), new JamAnalyzer(start));
+    }
+
+    /**
+     * JamRanker constructor.
+     *
+     * @param layout puzzle descriptor
+     * @param analyzer position bounds (null for whole lanes)
+     */
+    private JamRanker(JamLayout layout, JamAnalyzer analyzer) {
+
+        this.layout = layout;
+        this.low = new int[layout.getCarCount()];
+        this.radices = new int[layout.getCarCount()];
+
+        long total = 1;
+
+        for (int car = 0; car < this.low.length; ++car) {
+
+            if (analyzer == null) {
+                this.radices[car] = layout.getLaneSize(car);
+            } else {
+                this.low[car] = analyzer.getLowBound(car);
+                this.radices[car] = analyzer.getHighBound(car) - analyzer.getLowBound(car) + 1;
+            }
+
+            try {
+                total = Math.multiplyExact(total, this.radices[car]);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Too many car positions to rank in a long", e);
+            }
+        }
+
+        this.size = total;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long size() {
+        return this.size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long rank(JamCarConfig config) {
+
+        long rank = 0;
+
+        for (int car = 0; car < this.radices.length; ++car) {
+            rank = rank * this.radices[car] + config.getPosition(car) - this.low[car];
+        }
+
+        return rank;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JamCarConfig unrank(long rank) {
+
+        byte[] positions = new byte[this.radices.length];
+
+        for (int car = this.radices.length - 1; car >= 0; --car) {
+            positions[car] = (byte) (this.low[car] + rank % this.radices[car]);
+            rank /= this.radices[car];
+        }
+
+        return new JamCarConfig(this.layout, positions);
+    }
+}
@@ -1,11 +1,24 @@
 package puzzles.jam.solver;
 
+import puzzles.common.solver.AStarSolver;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.ExternalSolver;
+import puzzles.common.solver.IDAStarSolver;
+import puzzles.common.solver.ParallelSolver;
+import puzzles.common.solver.RankedSolver;
 import puzzles.common.solver.Solver;
+import puzzles.jam.model.JamAnalyzer;
+import puzzles.jam.model.JamBlockerHeuristic;
+import puzzles.jam.model.JamCarCodec;
+import puzzles.jam.model.JamCarConfig;
 import puzzles.jam.model.JamConfig;
+import puzzles.jam.model.JamRanker;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 
 /**
  * Jam solver.
@@ -13,26 +26,145 @@ import java.util.ArrayList;
  * @author Max Milazzo (mam9563@rit.edu)
  */
 public class Jam {
+
+    /**
+     * Solves a puzzle with the solver selected by the command line options.
+     *
+     * @param puzzleSolver serial solver
+     * @param start starting configuration
+     * @param args command line arguments
+     * @return shortest path to end
+     */
+    private static Collection<Configuration> solve(Solver puzzleSolver, Configuration start, String[] args)
+            throws IOException {
+
+        for (String arg : args) {
+
+            if (arg.equals("-parallel") || arg.startsWith("-parallel=")) {
+
+                ParallelSolver parallelSolver = arg.equals("-parallel") ? new ParallelSolver()
+                        : new ParallelSolver(Integer.parseInt(arg.substring(10)));
+                // expands each level on the common fork/join pool or one with the given thread count
+
+                parallelSolver.setDeterministic(!Arrays.asList(args).contains("-shared"));
+                // optionally claims children in a shared lock-free visited set
+
+                return parallelSolver.findPath(start);
+            }
+
+            if (arg.equals("-astar")) {
+                return new AStarSolver<>(new JamBlockerHeuristic()).findPath(start, true);
+                // expands configs in order of moves so far plus estimated moves left
+            }
+
+            if (arg.equals("-idastar")) {
+                return new IDAStarSolver<>(new JamBlockerHeuristic()).findPath(start, true);
+                // iteratively deepens on the same estimate, keeping only the current path
+            }
+
+            if (arg.equals("-external") || arg.startsWith("-external=")) {
+
+                JamCarConfig carStart = start instanceof JamCarConfig ? (JamCarConfig) start
+                        : JamCarConfig.of((JamConfig) start);
+                // records are packed from the car-vector representation
+
+                ExternalSolver<JamCarConfig> externalSolver = new ExternalSolver<>(new JamCarCodec(carStart.getLayout()));
+                externalSolver.setDuplicateWindow(2);
+                // every Jam move can be undone, so only the two previous levels can repeat a config
+                externalSolver.setFullEnumeration(Arrays.asList(args).contains("-enumerate"));
+                // optionally expands every level instead of stopping at the solution level
+
+                if (arg.startsWith("-external=")) {
+                    externalSolver.setDirectory(Paths.get(arg.substring(10)));
+                }
+
+                return externalSolver.findPath(carStart, true);
+            }
+
+            if (arg.equals("-ranked")) {
+
+                JamCarConfig carStart = start instanceof JamCarConfig ? (JamCarConfig) start
+                        : JamCarConfig.of((JamConfig) start);
+
+                RankedSolver<JamCarConfig> rankedSolver = new RankedSolver<>(new JamRanker(carStart));
+                rankedSolver.setFullEnumeration(Arrays.asList(args).contains("-enumerate"));
+                // indexes a paged depth table by mixed-radix car positions instead of hashing configs
+
+                return rankedSolver.findPath(carStart, true);
+            }
+        }
+
+        return puzzleSolver.findPath(start);
+    }
+
     public static void main(String[] args) {
-        if (args.length != 1) {
+        if (args.length < 1) {
 
-            System.out.println("Usage: java Jam filename");
+            System.out.println("Usage: java Jam filename [-cars] [-external[=dir] [-enumerate] | -ranked [-enumerate] | -parallel[=threads] [-shared] | -astar | -idastar] [-analyze] [-earlygoal] [-hashstats] [-stats] [-progress]");
 
         } else {
 
             Solver puzzleSolver = new Solver();
             // creates Solver instance
 
+            puzzleSolver.setHashDiagnostics(Arrays.asList(args).contains("-hashstats"));
+            // optionally reports visited set hash distribution
+
+            puzzleSolver.setEarlyGoalTest(Arrays.asList(args).contains("-earlygoal"));
+            // optionally stops as soon as a solution is generated
+
+            puzzleSolver.setDetailedStats(Arrays.asList(args).contains("-stats"));
+            // optionally reports expansions, frontier size, timing and memory
+
+            puzzleSolver.setPuzzleFile(args[0]);
+            // names the puzzle in flight recorder events
+
+            if (Arrays.asList(args).contains("-progress")) {
+                puzzleSolver.addListener((depth, width, stats) ->
+                        System.out.println("Level " + depth + ": " + width + " configs"));
+                // reports each BFS level as it starts
+            }
+
             try {
                 
                 Configuration start = new JamConfig(args[0]);
                 // initializes start configuration
 
+                if (Arrays.asList(args).contains("-cars")) {
+                    start = JamCarConfig.of((JamConfig) start);
+                    // solves on the car-vector representation instead of the grid
+                }
+
                 System.out.println("File: " + args[0]);
                 System.out.println(start);
 
-                ArrayList<Configuration> path = (ArrayList<Configuration>) puzzleSolver.findPath(start);
-                // uses BFS Solver class to solve puzzle
+                ArrayList<Configuration> path = new ArrayList<>();
+
+                if (Arrays.asList(args).contains("-analyze")) {
+
+                    JamAnalyzer analyzer = new JamAnalyzer(start instanceof JamCarConfig ? (JamCarConfig) start
+                            : JamCarConfig.of((JamConfig) start));
+                    String reason = analyzer.unsolvableReason();
+
+                    System.out.println("Locked cars: " + analyzer.getLockedCount());
+
+                    if (reason != null) {
+                        System.out.println("Unsolvable: " + reason);
+                        // proven before searching, so the search is skipped
+                    } else {
+
+                        if (start instanceof JamCarConfig) {
+                            start = ((JamCarConfig) start).withLockedCars(analyzer.getLockedCars());
+                            // skips pinned cars when generating neighbors
+                        }
+
+                        path = (ArrayList<Configuration>) solve(puzzleSolver, start, args);
+                    }
+
+                } else {
+                    path = (ArrayList<Configuration>) solve(puzzleSolver, start, args);
+                    // uses the selected solver to solve puzzle
+                }
 
                 if (path.size() > 0) {
 
@@ -1,9 +1,11 @@
 package puzzles.strings;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.ReversibleConfiguration;
 import puzzles.common.solver.Solver;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * String puzzle main class.
@@ -21,20 +23,27 @@ public class Strings {
 
         if (args.length < 2) {  // checks for incorrect arguments
 
-            System.out.println(("Usage: java Strings start finish"));
+            System.out.println(("Usage: java Strings start finish [-bidirectional]"));
 
         } else {
 
             Solver puzzleSolver = new Solver();
             // creates Solver instance
 
-            Configuration start = new StringsConfiguration(args[0], args[1]);
+            ReversibleConfiguration start = new StringsConfiguration(args[0], args[1]);
             // initializes start configuration
 
             System.out.println("Start: " + args[0] + ", End: " + args[1]);
 
-            ArrayList<Configuration> path = (ArrayList<Configuration>) puzzleSolver.findPath(start);
-            // uses BFS Solver class to solve puzzle
+            ArrayList<Configuration> path;
+
+            if (Arrays.asList(args).contains("-bidirectional")) {
+                path = (ArrayList<Configuration>) puzzleSolver.findPathBidirectional(start, true);
+                // searches from both ends toward the middle
+            } else {
+                path = (ArrayList<Configuration>) puzzleSolver.findPath(start);
+                // uses BFS Solver class to solve puzzle
+            }
 
             if (path.size() > 0) {
 
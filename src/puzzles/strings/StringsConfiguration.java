@@ -1,6 +1,7 @@
 package puzzles.strings;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.ReversibleConfiguration;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -10,7 +11,7 @@ import java.util.Collection;
  *
  * @author Max Milazzo (mam9563@rit.edu)
  */
-public class StringsConfiguration implements Configuration {
+public class StringsConfiguration implements ReversibleConfiguration {
 
     /** Configuration current string */
     private final String str;
@@ -75,6 +76,23 @@ public class StringsConfiguration implements Configuration {
 
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Configuration getGoal() {
+        return new StringsConfiguration(this.solution, this.solution);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Letters step both up and down, so predecessors are the neighbors.
+     */
+    @Override
+    public Collection<Configuration> getPredecessors() {
+        return getNeighbors();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -98,6 +116,21 @@ public class StringsConfiguration implements Configuration {
         return this.str.hashCode();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long fingerprint() {
+
+        long h = 0;
+
+        for (int i = 0; i < this.str.length(); ++i) {
+            h = (h + this.str.charAt(i)) * 0x9E3779B97F4A7C15L;
+        }
+
+        return h ^ (h >>> 29);
+    }
+
     /**
      * {@inheritDoc}
      */